@@ -0,0 +1,103 @@
+package io.github.ocelot.sonar.benchmark;
+
+import io.github.ocelot.sonar.common.util.DynamicInventory;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.util.registry.Bootstrap;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Measures the cost of looking up and iterating stacks in {@link DynamicInventory} using sparse and dense storage.</p>
+ *
+ * @author Ocelot
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DynamicInventoryBenchmark
+{
+    private static final int LOOKUPS = 1024;
+
+    @Param({"SPARSE", "DENSE"})
+    private DynamicInventory.StorageMode mode;
+    @Param({"10000"})
+    private int size;
+    @Param({"0.05", "0.9"})
+    private double fill;
+
+    private BenchmarkInventory inventory;
+    private int[] lookups;
+
+    @Setup
+    public void setup()
+    {
+        Bootstrap.register();
+
+        Random random = new Random(42);
+        this.inventory = new BenchmarkInventory(this.mode, this.size);
+        for (int i = 0; i < this.size; i++)
+            if (random.nextDouble() < this.fill)
+                this.inventory.setInventorySlotContents(i, new ItemStack(Items.COBBLESTONE, 1 + random.nextInt(64)));
+
+        this.lookups = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++)
+            this.lookups[i] = random.nextInt(this.size);
+    }
+
+    @Benchmark
+    public void lookup(Blackhole blackhole)
+    {
+        for (int index : this.lookups)
+            blackhole.consume(this.inventory.getStackInSlot(index));
+    }
+
+    @Benchmark
+    public int iterate()
+    {
+        int count = 0;
+        for (int i = 0; i < this.size; i++)
+            count += this.inventory.getStackInSlot(i).getCount();
+        return count;
+    }
+
+    @Benchmark
+    public ItemStack setAndRemove()
+    {
+        int index = this.inventory.getNextFreeSlot(0);
+        if (index == -1)
+            return ItemStack.EMPTY;
+        this.inventory.setInventorySlotContents(index, new ItemStack(Items.STONE, 64));
+        return this.inventory.removeStackFromSlot(index);
+    }
+
+    private static class BenchmarkInventory extends DynamicInventory
+    {
+        private final int size;
+
+        private BenchmarkInventory(StorageMode mode, int size)
+        {
+            super(mode);
+            this.size = size;
+        }
+
+        @Override
+        public int getSizeInventory()
+        {
+            return size;
+        }
+
+        @Override
+        public boolean isUsableByPlayer(PlayerEntity player)
+        {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.ocelot.sonar.benchmark;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import net.minecraft.network.IPacket;
+import net.minecraft.network.NettyPacketDecoder;
+import net.minecraft.network.NettyPacketEncoder;
+import net.minecraft.network.NetworkManager;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.network.PacketDirection;
+import net.minecraft.network.ProtocolType;
+import net.minecraftforge.fml.network.ICustomPacket;
+import net.minecraftforge.fml.network.NetworkDirection;
+import net.minecraftforge.fml.network.NetworkHooks;
+import net.minecraftforge.fml.network.simple.SimpleChannel;
+
+/**
+ * <p>A headless connection that passes messages through the same encoder, decoder and message handlers as a real connection, without needing a client or server.</p>
+ * <p>Messages are converted into vanilla packets, written to bytes and read back using {@link EmbeddedChannel}, then dispatched to the channel on a {@link NetworkManager} that is not connected to anything.
+ * Any handlers that rely on {@link net.minecraftforge.fml.network.NetworkEvent.Context#enqueueWork(Runnable)} or a sender will not work unless a game instance is running.</p>
+ *
+ * @author Ocelot
+ */
+public class LoopbackConnection
+{
+    private final SimpleChannel channel;
+    private final NetworkDirection direction;
+    private final EmbeddedChannel encoder;
+    private final EmbeddedChannel decoder;
+    private final EmbeddedChannel receiver;
+    private final NetworkManager networkManager;
+
+    public LoopbackConnection(SimpleChannel channel, NetworkDirection direction)
+    {
+        if (direction != NetworkDirection.PLAY_TO_SERVER && direction != NetworkDirection.PLAY_TO_CLIENT)
+            throw new IllegalArgumentException("Loopback connections only support play messages");
+
+        PacketDirection packetDirection = direction.getReceptionSide().isServer() ? PacketDirection.SERVERBOUND : PacketDirection.CLIENTBOUND;
+        this.channel = channel;
+        this.direction = direction;
+        this.encoder = new EmbeddedChannel(new NettyPacketEncoder(packetDirection));
+        this.encoder.attr(NetworkManager.PROTOCOL_ATTRIBUTE_KEY).set(ProtocolType.PLAY);
+        this.decoder = new EmbeddedChannel(new NettyPacketDecoder(packetDirection));
+        this.decoder.attr(NetworkManager.PROTOCOL_ATTRIBUTE_KEY).set(ProtocolType.PLAY);
+        this.networkManager = new NetworkManager(packetDirection);
+        this.receiver = new EmbeddedChannel(this.networkManager);
+        this.receiver.attr(NetworkManager.PROTOCOL_ATTRIBUTE_KEY).set(ProtocolType.PLAY);
+    }
+
+    /**
+     * Encodes the specified message into the bytes that would be sent over the network.
+     *
+     * @param msg The message to encode
+     * @return A buffer containing the full packet. This must be released or passed into {@link #receive(ByteBuf)}
+     */
+    public ByteBuf encode(Object msg)
+    {
+        IPacket<?> packet = this.channel.toVanillaPacket(msg, this.direction);
+        this.encoder.writeOutbound(packet);
+        return this.encoder.readOutbound();
+    }
+
+    /**
+     * Decodes the specified packet bytes and dispatches the message to the handlers registered on the channel.
+     *
+     * @param encoded The packet bytes created by {@link #encode(Object)}. This buffer is released by this method
+     * @return Whether or not the message was handled
+     */
+    public boolean receive(ByteBuf encoded)
+    {
+        this.decoder.writeInbound(encoded);
+        IPacket<?> packet = this.decoder.readInbound();
+        if (!(packet instanceof ICustomPacket<?>))
+            throw new IllegalStateException("Expected a custom payload packet, but got " + packet);
+
+        PacketBuffer data = ((ICustomPacket<?>) packet).getInternalData();
+        try
+        {
+            return NetworkHooks.onCustomPayload((ICustomPacket<?>) packet, this.networkManager);
+        }
+        finally
+        {
+            if (data.refCnt() > 0)
+                data.release();
+            this.receiver.outboundMessages().clear();
+        }
+    }
+
+    /**
+     * Sends the specified message through the full encode, decode and handle path.
+     *
+     * @param msg The message to send
+     * @return Whether or not the message was handled
+     */
+    public boolean send(Object msg)
+    {
+        return this.receive(this.encode(msg));
+    }
+
+    /**
+     * Closes all channels used by this connection.
+     */
+    public void close()
+    {
+        this.encoder.finishAndReleaseAll();
+        this.decoder.finishAndReleaseAll();
+        this.receiver.finishAndReleaseAll();
+    }
+
+    /**
+     * @return The network manager messages are dispatched on
+     */
+    public NetworkManager getNetworkManager()
+    {
+        return networkManager;
+    }
+}
@@ -0,0 +1,167 @@
+package io.github.ocelot.sonar.benchmark;
+
+import io.github.ocelot.sonar.Sonar;
+import io.github.ocelot.sonar.common.network.SonarNetworkManager;
+import io.github.ocelot.sonar.common.network.codec.MessageField;
+import io.github.ocelot.sonar.common.network.message.CodecSonarMessage;
+import io.github.ocelot.sonar.common.valuecontainer.*;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.registry.Bootstrap;
+import net.minecraft.util.text.StringTextComponent;
+import net.minecraftforge.fml.network.NetworkDirection;
+import net.minecraftforge.fml.network.NetworkEvent;
+import net.minecraftforge.fml.network.NetworkRegistry;
+import net.minecraftforge.fml.network.simple.SimpleChannel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Measures the cost of encoding, decoding and dispatching messages through {@link SonarNetworkManager} using a {@link LoopbackConnection}.</p>
+ * <p>The benchmark runs outside of FML, so nothing is set up by the mod loader. {@link Bootstrap#register()} initializes the vanilla registries that packet serialization depends on
+ * and {@link NetworkRegistry#newSimpleChannel(ResourceLocation, java.util.function.Supplier, java.util.function.Predicate, java.util.function.Predicate)} only refuses new channels once FML has finished loading, which never happens here.
+ * Messages are handled on the benchmark thread, so handlers must not call {@link NetworkEvent.Context#enqueueWork(Runnable)}. Run with <code>gradlew jmh</code>, which uses the patched Minecraft classes from the ForgeGradle user dev classpath.</p>
+ *
+ * @author Ocelot
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NetworkBenchmark
+{
+    private static final String VERSION = "1";
+
+    private LoopbackConnection connection;
+    private SyncValueContainerMessage syncMessage;
+    private TestCodecMessage codecMessage;
+
+    @Setup
+    public void setup(Blackhole blackhole)
+    {
+        Bootstrap.register();
+
+        SimpleChannel channel = NetworkRegistry.newSimpleChannel(new ResourceLocation(Sonar.DOMAIN, "benchmark"), () -> VERSION, VERSION::equals, VERSION::equals);
+        SonarNetworkManager networkManager = new SonarNetworkManager(channel, () -> () -> new BenchmarkHandler(blackhole), () -> () -> new BenchmarkHandler(blackhole));
+        networkManager.register(SyncValueContainerMessage.class, SyncValueContainerMessage::new, NetworkDirection.PLAY_TO_SERVER);
+        networkManager.register(TestCodecMessage.class, TestCodecMessage::new, NetworkDirection.PLAY_TO_SERVER);
+        this.connection = new LoopbackConnection(channel, NetworkDirection.PLAY_TO_SERVER);
+
+        List<ValueContainerEntry<?>> entries = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+        {
+            IntValueContainerEntry intEntry = new IntValueContainerEntry(new StringTextComponent("Int " + i), "int" + i, i, 0, 100);
+            intEntry.parse(Integer.toString(i + 50));
+            entries.add(intEntry);
+            FloatValueContainerEntry floatEntry = new FloatValueContainerEntry(new StringTextComponent("Float " + i), "float" + i, i);
+            floatEntry.parse(Float.toString(i + 0.5F));
+            entries.add(floatEntry);
+            BooleanValueContainerEntry booleanEntry = new BooleanValueContainerEntry(new StringTextComponent("Boolean " + i), "boolean" + i, false);
+            booleanEntry.parse("true");
+            entries.add(booleanEntry);
+            StringValueContainerEntry stringEntry = new StringValueContainerEntry(new StringTextComponent("String " + i), "string" + i, "");
+            stringEntry.parse("Value " + i);
+            entries.add(stringEntry);
+        }
+        this.syncMessage = new SyncValueContainerMessage(new BlockPos(128, 64, -128), entries);
+        this.codecMessage = new TestCodecMessage(new BlockPos(128, 64, -128), 42, 123456789L, 0.5, "Test");
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        this.connection.close();
+    }
+
+    @Benchmark
+    public int encodeSync()
+    {
+        ByteBuf buf = this.connection.encode(this.syncMessage);
+        int size = buf.readableBytes();
+        buf.release();
+        return size;
+    }
+
+    @Benchmark
+    public boolean roundTripSync()
+    {
+        return this.connection.send(this.syncMessage);
+    }
+
+    @Benchmark
+    public int encodeCodec()
+    {
+        ByteBuf buf = this.connection.encode(this.codecMessage);
+        int size = buf.readableBytes();
+        buf.release();
+        return size;
+    }
+
+    @Benchmark
+    public boolean roundTripCodec()
+    {
+        return this.connection.send(this.codecMessage);
+    }
+
+    public static class BenchmarkHandler implements IValueContainerServerHandler
+    {
+        private final Blackhole blackhole;
+
+        public BenchmarkHandler(Blackhole blackhole)
+        {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void handleSyncValueContainerMessage(SyncValueContainerMessage msg, NetworkEvent.Context ctx)
+        {
+            this.blackhole.consume(msg.getPos());
+            this.blackhole.consume(msg.getPayload());
+        }
+
+        public void handleTestCodecMessage(TestCodecMessage msg, NetworkEvent.Context ctx)
+        {
+            this.blackhole.consume(msg);
+        }
+    }
+
+    public static class TestCodecMessage extends CodecSonarMessage<BenchmarkHandler>
+    {
+        @MessageField
+        private BlockPos pos;
+        @MessageField
+        private int intValue;
+        @MessageField
+        private long longValue;
+        @MessageField
+        private double doubleValue;
+        @MessageField
+        private String stringValue;
+
+        public TestCodecMessage()
+        {
+        }
+
+        public TestCodecMessage(BlockPos pos, int intValue, long longValue, double doubleValue, String stringValue)
+        {
+            this.pos = pos;
+            this.intValue = intValue;
+            this.longValue = longValue;
+            this.doubleValue = doubleValue;
+            this.stringValue = stringValue;
+        }
+
+        @Override
+        public void processPacket(BenchmarkHandler handler, NetworkEvent.Context ctx)
+        {
+            handler.handleTestCodecMessage(this, ctx);
+        }
+    }
+}
@@ -1,24 +1,35 @@
 package io.github.ocelot.sonar.client.screen;
 
+import io.github.ocelot.sonar.common.valuecontainer.SliderEntry;
 import io.github.ocelot.sonar.common.valuecontainer.ValueContainer;
 import io.github.ocelot.sonar.common.valuecontainer.ValueContainerEntry;
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.ints.IntLists;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.IGuiEventListener;
 import net.minecraft.client.gui.screen.Screen;
 import net.minecraft.client.gui.widget.TextFieldWidget;
 import net.minecraft.client.gui.widget.Widget;
 import net.minecraft.client.util.InputMappings;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.Util;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.api.distmarker.OnlyIn;
+import org.lwjgl.glfw.GLFW;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.function.BooleanSupplier;
 import java.util.function.Supplier;
 
 /**
  * <p>A simple template that can be used for general {@link ValueContainer} editing screens.</p>
+ * <p>Entries can be filtered by name using {@link #setFilter(String)}, which searches a {@link ValueContainerSearchIndex} created the first time it is needed.</p>
+ * <p>Edits made through {@link #recordEdit(int, BooleanSupplier)} can be undone with Ctrl+Z and redone with Ctrl+Y or Ctrl+Shift+Z.</p>
  *
  * @author Ocelot
  * @see ValueContainer
@@ -27,10 +38,31 @@ import java.util.function.Supplier;
 @OnlyIn(Dist.CLIENT)
 public abstract class ValueContainerEditorScreen extends Screen
 {
+    /**
+     * The maximum number of edits that can be undone.
+     */
+    public static final int HISTORY_CAPACITY = 64;
+    /**
+     * The time in milliseconds edits to the same entry are merged into a single edit, so dragging a slider or typing a value can be undone at once.
+     */
+    public static final long MERGE_TIME = 500;
+
     private final ValueContainer container;
     private final BlockPos pos;
     private final List<ValueContainerEntry<?>> entries;
     private final String formattedTitle;
+    private final int schemaHash;
+    private final Edit[] history;
+    private int historyStart;
+    private int historySize;
+    private int historyPosition;
+    private boolean applyingHistory;
+    private int pendingIndex;
+    private byte[] pendingBefore;
+    private ValueContainerSearchIndex searchIndex;
+    private String filter;
+    private IntList filteredEntries;
+    private boolean subscribed;
 
     public ValueContainerEditorScreen(ValueContainer container, BlockPos pos, Supplier<ITextComponent> defaultTitle)
     {
@@ -39,6 +71,19 @@ public abstract class ValueContainerEditorScreen extends Screen
         this.pos = pos;
         this.entries = container.getEntries(Minecraft.getInstance().world, pos);
         this.formattedTitle = this.getTitle().getFormattedText();
+        this.schemaHash = ValueContainer.getSchemaHash(this.entries);
+        this.history = new Edit[HISTORY_CAPACITY];
+        this.pendingIndex = -1;
+        this.filter = "";
+        IntList allEntries = new IntArrayList(this.entries.size());
+        for (int i = 0; i < this.entries.size(); i++)
+            allEntries.add(i);
+        this.filteredEntries = IntLists.unmodifiable(allEntries);
+    }
+
+    private static byte[] capture(ValueContainerEntry<?> entry)
+    {
+        return ValueContainer.toByteArray(entry::writeValue);
     }
 
     /**
@@ -46,6 +91,250 @@ public abstract class ValueContainerEditorScreen extends Screen
      */
     protected abstract void sendDataToServer();
 
+    /**
+     * Tells the server to start or stop sending updates for the container while this screen is open. Should send a {@link io.github.ocelot.sonar.common.valuecontainer.SubscribeValueContainerMessage} to the server. Does nothing by default.
+     *
+     * @param subscribe Whether to start or stop receiving updates
+     * @since 5.1.0
+     */
+    protected void sendSubscriptionToServer(boolean subscribe)
+    {
+    }
+
+    /**
+     * Called when an entry value was changed to match the server.
+     *
+     * @param index The index of the entry in {@link #getEntries()}
+     * @param entry The entry that changed
+     * @since 5.1.0
+     */
+    protected void onEntryUpdated(int index, ValueContainerEntry<?> entry)
+    {
+    }
+
+    /**
+     * Called when the entries matching the filter change.
+     *
+     * @since 5.1.0
+     */
+    protected void onFilterChanged()
+    {
+    }
+
+    /**
+     * Shows only entries with a name or display name containing the specified text.
+     *
+     * @param filter The text to search for or an empty string to show all entries
+     * @since 5.1.0
+     */
+    public void setFilter(String filter)
+    {
+        if (this.filter.equals(filter))
+            return;
+        this.filter = filter;
+        IntList filteredEntries = this.getSearchIndex().search(filter);
+        if (filteredEntries.equals(this.filteredEntries))
+        {
+            this.filteredEntries = filteredEntries;
+            return;
+        }
+        this.filteredEntries = filteredEntries;
+        this.onFilterChanged();
+    }
+
+    /**
+     * @return The text entries are being filtered by
+     * @since 5.1.0
+     */
+    public String getFilter()
+    {
+        return filter;
+    }
+
+    /**
+     * @return The indices in {@link #getEntries()} of all entries matching the filter in ascending order
+     * @since 5.1.0
+     */
+    public IntList getFilteredEntries()
+    {
+        return filteredEntries;
+    }
+
+    /**
+     * @return The index used to search entries
+     * @since 5.1.0
+     */
+    public ValueContainerSearchIndex getSearchIndex()
+    {
+        if (this.searchIndex == null)
+            this.searchIndex = new ValueContainerSearchIndex(this.entries);
+        return searchIndex;
+    }
+
+    /**
+     * Fetches the index of the entry the specified element edits. Used to record edits made with the keyboard.
+     *
+     * @param listener The element to get the entry of
+     * @return The index of the entry in {@link #getEntries()} or -1 if the element does not edit an entry
+     * @since 5.1.0
+     */
+    protected int getEntryIndex(IGuiEventListener listener)
+    {
+        return -1;
+    }
+
+    /**
+     * Performs an edit to the entry at the specified index and adds it to the undo history if the value changed.
+     * <p>Whether the value changed is checked using the slider value or the value object of the entry, so most input does not copy the value.
+     * The value before an edit is only copied when starting a new edit and the value after an edit is only copied once the edit is finished by another edit or undone.</p>
+     *
+     * @param index The index of the entry in {@link #getEntries()}
+     * @param edit  The edit to perform
+     * @return The result of the edit
+     * @since 5.1.0
+     */
+    protected boolean recordEdit(int index, BooleanSupplier edit)
+    {
+        if (this.applyingHistory || index < 0 || index >= this.entries.size())
+            return edit.getAsBoolean();
+
+        ValueContainerEntry<?> entry = this.entries.get(index);
+        long time = Util.milliTime();
+        Edit last = this.historyPosition > 0 && this.historyPosition == this.historySize ? this.getEdit(this.historyPosition - 1) : null;
+        boolean merge = last != null && last.after == null && last.index == index && time - last.time < MERGE_TIME;
+        if (!merge && this.pendingIndex != index)
+        {
+            this.pendingIndex = index;
+            this.pendingBefore = capture(entry);
+        }
+
+        boolean result;
+        boolean changed;
+        if (entry instanceof SliderEntry)
+        {
+            double before = ((SliderEntry) entry).getSliderValue();
+            result = edit.getAsBoolean();
+            changed = Double.compare(before, ((SliderEntry) entry).getSliderValue()) != 0;
+        }
+        else
+        {
+            Object before = entry.getValue();
+            result = edit.getAsBoolean();
+            changed = !Objects.equals(before, entry.getValue());
+        }
+        if (!changed)
+            return result;
+
+        if (merge)
+        {
+            last.time = time;
+            return result;
+        }
+
+        this.finishEdit();
+        this.historySize = this.historyPosition;
+        if (this.historySize == this.history.length)
+        {
+            this.historyStart = (this.historyStart + 1) % this.history.length;
+            this.historySize--;
+        }
+        this.history[(this.historyStart + this.historySize) % this.history.length] = new Edit(index, this.pendingBefore, time);
+        this.historySize++;
+        this.historyPosition = this.historySize;
+        this.pendingIndex = -1;
+        this.pendingBefore = null;
+        return result;
+    }
+
+    private void finishEdit()
+    {
+        if (this.historyPosition == 0 || this.historyPosition != this.historySize)
+            return;
+        Edit last = this.getEdit(this.historyPosition - 1);
+        if (last.after == null)
+            last.after = capture(this.entries.get(last.index));
+    }
+
+    private Edit getEdit(int index)
+    {
+        return this.history[(this.historyStart + index) % this.history.length];
+    }
+
+    private void applyHistory(int index, byte[] value)
+    {
+        ValueContainerEntry<?> entry = this.entries.get(index);
+        this.applyingHistory = true;
+        this.pendingIndex = -1;
+        this.pendingBefore = null;
+        try
+        {
+            entry.readValue(new PacketBuffer(Unpooled.wrappedBuffer(value)));
+            this.onEntryUpdated(index, entry);
+        }
+        finally
+        {
+            this.applyingHistory = false;
+        }
+    }
+
+    /**
+     * Reverts the last edit made in this screen.
+     *
+     * @return Whether or not there was an edit to revert
+     * @since 5.1.0
+     */
+    public boolean undo()
+    {
+        if (!this.canUndo())
+            return false;
+        this.finishEdit();
+        Edit edit = this.getEdit(--this.historyPosition);
+        this.applyHistory(edit.index, edit.before);
+        return true;
+    }
+
+    /**
+     * Applies the last edit reverted by {@link #undo()} again.
+     *
+     * @return Whether or not there was an edit to apply
+     * @since 5.1.0
+     */
+    public boolean redo()
+    {
+        if (!this.canRedo())
+            return false;
+        Edit edit = this.getEdit(this.historyPosition++);
+        this.applyHistory(edit.index, edit.after);
+        return true;
+    }
+
+    /**
+     * @return Whether or not there is an edit that can be undone
+     * @since 5.1.0
+     */
+    public boolean canUndo()
+    {
+        return this.historyPosition > 0;
+    }
+
+    /**
+     * @return Whether or not there is an edit that can be redone
+     * @since 5.1.0
+     */
+    public boolean canRedo()
+    {
+        return this.historyPosition < this.historySize;
+    }
+
+    /**
+     * @return Whether or not entries are currently being changed by {@link #undo()} or {@link #redo()}
+     * @since 5.1.0
+     */
+    public boolean isApplyingHistory()
+    {
+        return applyingHistory;
+    }
+
     /**
      * Draws the background of the screen and any elements that should be drawn behind buttons.
      *
@@ -93,6 +382,12 @@ public abstract class ValueContainerEditorScreen extends Screen
 
         this.children.forEach(this::tickChild);
 
+        if (!this.subscribed)
+        {
+            this.subscribed = true;
+            this.sendSubscriptionToServer(true);
+        }
+
         if (!this.shouldStayOpen())
         {
             this.minecraft.player.closeScreen();
@@ -125,16 +420,72 @@ public abstract class ValueContainerEditorScreen extends Screen
     @Override
     public void removed()
     {
+        if (this.subscribed)
+        {
+            this.subscribed = false;
+            this.sendSubscriptionToServer(false);
+        }
         if (this.entries.stream().anyMatch(ValueContainerEntry::isDirty))
             this.sendDataToServer();
     }
 
+    /**
+     * Reads values sent from the server into the entries of this screen. Entries that have been modified in this screen keep their value.
+     *
+     * @param buf The buffer containing values written by {@link ValueContainer#serialize(List, java.util.BitSet, PacketBuffer)}
+     * @throws IllegalStateException If the data was written for a different set of entries or is malformed
+     * @since 5.1.0
+     */
+    public void receiveUpdate(PacketBuffer buf)
+    {
+        if (buf.readInt() != this.schemaHash)
+            throw new IllegalStateException("Value container at '" + this.pos + "' has different entries than the server");
+
+        PacketBuffer local = null;
+        int index;
+        while ((index = buf.readVarInt()) != 0)
+        {
+            if (index < 0 || index > this.entries.size())
+                throw new IllegalStateException("Expected to read entry " + (index - 1) + ", but there are only " + this.entries.size() + " entries!");
+
+            ValueContainerEntry<?> entry = this.entries.get(index - 1);
+            if (entry.isDirty())
+            {
+                // The server value is skipped by reading it into the entry and then restoring the value from this screen
+                if (local == null)
+                    local = new PacketBuffer(Unpooled.buffer());
+                local.clear();
+                entry.writeValue(local);
+                entry.readValue(buf);
+                entry.readValue(local);
+                continue;
+            }
+
+            entry.readValue(buf);
+            entry.markClean();
+            if (this.pendingIndex == index - 1)
+            {
+                this.pendingIndex = -1;
+                this.pendingBefore = null;
+            }
+            this.onEntryUpdated(index - 1, entry);
+        }
+    }
+
     @Override
     public boolean keyPressed(int keyCode, int scanCode, int modifiers)
     {
         if (this.minecraft == null || this.minecraft.player == null)
             return super.keyPressed(keyCode, scanCode, modifiers);
-        if (super.keyPressed(keyCode, scanCode, modifiers) || this.getFocused() != null)
+        if (hasControlDown() && !hasAltDown())
+        {
+            if (keyCode == GLFW.GLFW_KEY_Z && !hasShiftDown())
+                return this.undo();
+            if (keyCode == GLFW.GLFW_KEY_Y || (keyCode == GLFW.GLFW_KEY_Z && hasShiftDown()))
+                return this.redo();
+        }
+        IGuiEventListener focused = this.getFocused();
+        if ((focused != null ? this.recordEdit(this.getEntryIndex(focused), () -> super.keyPressed(keyCode, scanCode, modifiers)) : super.keyPressed(keyCode, scanCode, modifiers)) || this.getFocused() != null)
             return true;
 
         InputMappings.Input mouseKey = InputMappings.getInputByCode(keyCode, scanCode);
@@ -147,6 +498,15 @@ public abstract class ValueContainerEditorScreen extends Screen
         return false;
     }
 
+    @Override
+    public boolean charTyped(char character, int modifiers)
+    {
+        IGuiEventListener focused = this.getFocused();
+        if (focused != null)
+            return this.recordEdit(this.getEntryIndex(focused), () -> super.charTyped(character, modifiers));
+        return super.charTyped(character, modifiers);
+    }
+
     @Override
     public boolean mouseClicked(double mouseX, double mouseY, int mouseButton)
     {
@@ -193,4 +553,20 @@ public abstract class ValueContainerEditorScreen extends Screen
     {
         return formattedTitle;
     }
+
+    private static class Edit
+    {
+        private final int index;
+        private final byte[] before;
+        private byte[] after;
+        private long time;
+
+        private Edit(int index, byte[] before, long time)
+        {
+            this.index = index;
+            this.before = before;
+            this.after = null;
+            this.time = time;
+        }
+    }
 }
@@ -8,6 +8,8 @@ import io.github.ocelot.sonar.client.util.ScissorHelper;
 import io.github.ocelot.sonar.common.util.ScrollHandler;
 import io.github.ocelot.sonar.common.valuecontainer.ValueContainer;
 import io.github.ocelot.sonar.common.valuecontainer.ValueContainerEntry;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.IGuiEventListener;
 import net.minecraft.client.gui.widget.TextFieldWidget;
@@ -22,16 +24,15 @@ import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.api.distmarker.OnlyIn;
 
 import javax.annotation.Nullable;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.ListIterator;
-import java.util.Optional;
+import java.util.*;
 import java.util.function.BooleanSupplier;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 /**
  * <p>A simple scrolling implementation of {@link ValueContainerEditorScreen}. For more customizations, use {@link ValueContainerEditorScreen}.</p>
+ * <p>A search box above the screen filters entries by name using {@link #setFilter(String)}.</p>
+ * <p>Widgets are only created for the entries visible in the scroll area plus {@link #OVERSCAN} entries on either side. Widgets that scroll out of view are reused for the entries scrolling into view, so the cost of opening and drawing the screen does not depend on the number of entries.</p>
  *
  * @author Ocelot
  * @see ValueContainerEditorScreen
@@ -44,11 +45,16 @@ public abstract class ValueContainerEditorScreenImpl extends ValueContainerEdito
     public static final int WIDTH = 176;
     public static final int HEIGHT = 166;
     public static final int VALUE_HEIGHT = 35;
+    public static final int OVERSCAN = 2;
 
     private final int xSize;
     private final int ySize;
     private final List<Widget> entryWidgets;
+    private final IntList entryWidgetIndices;
+    private final Map<ValueContainerEntry.InputType, Deque<Widget>> widgetPool;
     private final ScrollHandler scrollHandler;
+    private int firstVisibleRow;
+    private TextFieldWidget searchField;
 
     private boolean scrolling;
 
@@ -58,8 +64,10 @@ public abstract class ValueContainerEditorScreenImpl extends ValueContainerEdito
         this.xSize = WIDTH;
         this.ySize = HEIGHT;
         this.entryWidgets = new ArrayList<>();
+        this.entryWidgetIndices = new IntArrayList();
+        this.widgetPool = new EnumMap<>(ValueContainerEntry.InputType.class);
         this.scrollHandler = new ScrollHandler(null, this.getEntries().size() * VALUE_HEIGHT, 142);
-        this.scrollHandler.setScrollSpeed(this.scrollHandler.getMaxScroll() / this.getEntries().size());
+        this.scrollHandler.setScrollSpeed(this.scrollHandler.getMaxScroll() / Math.max(1, this.getEntries().size()));
 
         this.scrolling = false;
     }
@@ -67,14 +75,15 @@ public abstract class ValueContainerEditorScreenImpl extends ValueContainerEdito
     private void renderLabels(float partialTicks)
     {
         float scroll = this.scrollHandler.getInterpolatedScroll(partialTicks);
-        for (int i = 0; i < this.getEntries().size(); i++)
+        IntList rows = this.getFilteredEntries();
+        for (int i = Math.max(0, (int) (scroll / VALUE_HEIGHT) - 1); i < rows.size(); i++)
         {
             float y = 2 + i * VALUE_HEIGHT;
             if (y - scroll + VALUE_HEIGHT < 0)
                 continue;
             if (y - scroll >= 160)
                 break;
-            ValueContainerEntry<?> entry = this.getEntries().get(i);
+            ValueContainerEntry<?> entry = this.getEntries().get(rows.getInt(i));
             FontHelper.drawString(this.getMinecraft().fontRenderer, entry.getDisplayName().getFormattedText(), 8, 18 + y, -1, true);
         }
     }
@@ -86,43 +95,103 @@ public abstract class ValueContainerEditorScreenImpl extends ValueContainerEdito
 
         this.addButton(new Button((this.width - this.xSize) / 2, (this.height + this.ySize) / 2 + 4, this.xSize, 20, I18n.format("gui.done"), button -> this.getMinecraft().displayGuiScreen(null)));
 
-        for (int i = 0; i < this.getEntries().size(); i++)
+        this.searchField = this.addButton(new TextFieldWidget(this.getMinecraft().fontRenderer, (this.width - this.xSize) / 2 + 1, (this.height - this.ySize) / 2 - 23, this.xSize - 2, 18, ""));
+        this.searchField.setMaxStringLength(256);
+        this.searchField.setText(this.getFilter());
+        this.searchField.setResponder(this::setFilter);
+
+        this.updateVisibleWidgets(this.scrollHandler.getScroll());
+    }
+
+    private void updateVisibleWidgets(float scroll)
+    {
+        IntList rows = this.getFilteredEntries();
+        int first = MathHelper.clamp(MathHelper.floor(scroll / VALUE_HEIGHT) - OVERSCAN, 0, rows.size());
+        int last = MathHelper.clamp(MathHelper.ceil((scroll + this.scrollHandler.getVisibleHeight()) / VALUE_HEIGHT) + OVERSCAN, first, rows.size());
+        int oldFirst = this.firstVisibleRow;
+        int oldLast = oldFirst + this.entryWidgets.size();
+        if (first == oldFirst && last == oldLast)
+            return;
+
+        List<Widget> widgets = new ArrayList<>(last - first);
+        for (int i = oldFirst; i < oldLast; i++)
+            if (i < first || i >= last)
+                this.recycleWidget(this.entryWidgetIndices.getInt(i - oldFirst), this.entryWidgets.get(i - oldFirst));
+        for (int i = first; i < last; i++)
+            widgets.add(i >= oldFirst && i < oldLast ? this.entryWidgets.get(i - oldFirst) : this.getWidget(i, rows.getInt(i)));
+
+        this.entryWidgets.clear();
+        this.entryWidgets.addAll(widgets);
+        this.entryWidgetIndices.clear();
+        for (int i = first; i < last; i++)
+            this.entryWidgetIndices.add(rows.getInt(i));
+        this.firstVisibleRow = first;
+    }
+
+    private void recycleWidget(int index, Widget widget)
+    {
+        if (this.getFocused() == widget)
+            this.setFocused(null);
+        if (widget instanceof TextFieldWidget)
         {
-            ValueContainerEntry<?> entry = this.getEntries().get(i);
-            switch (entry.getInputType())
+            ((TextFieldWidget) widget).setFocused2(false);
+            ((TextFieldWidget) widget).setResponder(null);
+        }
+        this.widgetPool.computeIfAbsent(this.getEntries().get(index).getInputType(), key -> new ArrayDeque<>()).push(widget);
+    }
+
+    private Widget getWidget(int row, int index)
+    {
+        ValueContainerEntry<?> entry = this.getEntries().get(index);
+        int y = 22 + this.getMinecraft().fontRenderer.FONT_HEIGHT + row * VALUE_HEIGHT;
+        Deque<Widget> pool = this.widgetPool.get(entry.getInputType());
+        Widget widget = pool != null ? pool.poll() : null;
+        switch (entry.getInputType())
+        {
+            case TEXT_FIELD:
             {
-                case TEXT_FIELD:
-                {
-                    Optional<Predicate<String>> optional = entry.getValidator();
-                    TextFieldWidget textField = new TextFieldWidget(this.getMinecraft().fontRenderer, 8, 22 + this.getMinecraft().fontRenderer.FONT_HEIGHT + i * VALUE_HEIGHT, 144, 20, "");
-                    textField.setMaxStringLength(Integer.MAX_VALUE);
-                    textField.setText(entry.getDisplay());
-                    textField.setResponder(text ->
-                    {
-                        boolean valid = !optional.isPresent() || optional.get().test(text);
-                        textField.setTextColor(valid ? 14737632 : 16733525);
-                        if (valid)
-                            entry.parse(text);
-                    });
-                    this.entryWidgets.add(textField);
-                    break;
-                }
-                case TOGGLE:
-                {
-                    this.entryWidgets.add(new ValueContainerEntryToggleImpl(entry, 8, 22 + this.getMinecraft().fontRenderer.FONT_HEIGHT + i * VALUE_HEIGHT, 144, 20));
-                    break;
-                }
-                case SWITCH:
-                {
-                    this.entryWidgets.add(new ValueContainerEntrySwitchImpl(entry, 8, 22 + this.getMinecraft().fontRenderer.FONT_HEIGHT + i * VALUE_HEIGHT, 144, 20));
-                    break;
-                }
-                case SLIDER:
+                TextFieldWidget textField = widget != null ? (TextFieldWidget) widget : new TextFieldWidget(this.getMinecraft().fontRenderer, 8, y, 144, 20, "");
+                Optional<Predicate<String>> optional = entry.getValidator();
+                textField.y = y;
+                textField.setMaxStringLength(Integer.MAX_VALUE);
+                textField.setResponder(null);
+                textField.setText(entry.getDisplay());
+                textField.setTextColor(14737632);
+                textField.setResponder(text ->
                 {
-                    this.entryWidgets.add(new ValueContainerEntrySliderImpl(entry, 8, 22 + this.getMinecraft().fontRenderer.FONT_HEIGHT + i * VALUE_HEIGHT, 144, 20));
-                    break;
-                }
+                    boolean valid = !optional.isPresent() || optional.get().test(text);
+                    textField.setTextColor(valid ? 14737632 : 16733525);
+                    if (valid)
+                        entry.parse(text);
+                });
+                return textField;
+            }
+            case TOGGLE:
+            {
+                if (widget == null)
+                    return new ValueContainerEntryToggleImpl(entry, 8, y, 144, 20);
+                ((ValueContainerEntryToggleImpl) widget).setEntry(entry);
+                widget.y = y;
+                return widget;
             }
+            case SWITCH:
+            {
+                if (widget == null)
+                    return new ValueContainerEntrySwitchImpl(entry, 8, y, 144, 20);
+                ((ValueContainerEntrySwitchImpl) widget).setEntry(entry);
+                widget.y = y;
+                return widget;
+            }
+            case SLIDER:
+            {
+                if (widget == null)
+                    return new ValueContainerEntrySliderImpl(entry, 8, y, 144, 20);
+                ((ValueContainerEntrySliderImpl) widget).setEntry(entry);
+                widget.y = y;
+                return widget;
+            }
+            default:
+                throw new IllegalStateException("Unknown input type: " + entry.getInputType());
         }
     }
 
@@ -130,6 +199,9 @@ public abstract class ValueContainerEditorScreenImpl extends ValueContainerEdito
     public void init(Minecraft minecraft, int width, int height)
     {
         this.entryWidgets.clear();
+        this.entryWidgetIndices.clear();
+        this.widgetPool.clear();
+        this.firstVisibleRow = 0;
         super.init(minecraft, width, height);
     }
 
@@ -144,6 +216,7 @@ public abstract class ValueContainerEditorScreenImpl extends ValueContainerEdito
 
         super.renderBackground();
         this.renderBackground(mouseX, mouseY, partialTicks);
+        this.updateVisibleWidgets(this.scrollHandler.getInterpolatedScroll(partialTicks));
 
         for (Widget widget : this.buttons)
             widget.render(mouseX, mouseY, partialTicks);
@@ -199,6 +272,47 @@ public abstract class ValueContainerEditorScreenImpl extends ValueContainerEdito
         ShapeRenderer.drawRectWithTexture(new MatrixStack(), 158, 18 + scrollbarY, hasScroll ? 176 : 188, 0, 12, 15);
     }
 
+    @Override
+    protected void onEntryUpdated(int index, ValueContainerEntry<?> entry)
+    {
+        int widgetIndex = this.entryWidgetIndices.indexOf(index);
+        if (widgetIndex == -1)
+            return;
+
+        Widget widget = this.entryWidgets.get(widgetIndex);
+        if (widget instanceof TextFieldWidget && (!widget.isFocused() || this.isApplyingHistory()))
+            ((TextFieldWidget) widget).setText(entry.getDisplay());
+        if (widget instanceof ValueContainerEntryToggleImpl)
+            ((ValueContainerEntryToggleImpl) widget).setToggled(((ValueContainerEntryToggleImpl) widget).getToggleEntry().isToggled());
+        if (widget instanceof ValueContainerEntrySwitchImpl)
+            widget.setMessage(entry.getDisplay());
+        if (widget instanceof ValueContainerEntrySliderImpl)
+            ((ValueContainerEntrySliderImpl) widget).refresh();
+    }
+
+    @Override
+    protected int getEntryIndex(IGuiEventListener listener)
+    {
+        int index = listener instanceof Widget ? this.entryWidgets.indexOf(listener) : -1;
+        return index != -1 ? this.entryWidgetIndices.getInt(index) : -1;
+    }
+
+    @Override
+    protected void onFilterChanged()
+    {
+        for (int i = 0; i < this.entryWidgets.size(); i++)
+            this.recycleWidget(this.entryWidgetIndices.getInt(i), this.entryWidgets.get(i));
+        this.entryWidgets.clear();
+        this.entryWidgetIndices.clear();
+        this.firstVisibleRow = 0;
+
+        int rows = this.getFilteredEntries().size();
+        this.scrollHandler.setHeight(rows * VALUE_HEIGHT);
+        this.scrollHandler.setScroll(0);
+        this.scrollHandler.setScrollSpeed(this.scrollHandler.getMaxScroll() / Math.max(1, rows));
+        this.updateVisibleWidgets(0);
+    }
+
     @Override
     public void tick()
     {
@@ -256,9 +370,10 @@ public abstract class ValueContainerEditorScreenImpl extends ValueContainerEdito
     private boolean entryComponentClicked(double mouseX, double mouseY, int mouseButton)
     {
         float scroll = this.scrollHandler.getInterpolatedScroll(Minecraft.getInstance().getRenderPartialTicks());
-        for (IGuiEventListener iguieventlistener : this.entryWidgets)
+        for (int i = 0; i < this.entryWidgets.size(); i++)
         {
-            if (iguieventlistener.mouseClicked(mouseX - (this.width - this.xSize) / 2f, mouseY - (this.height - this.ySize) / 2f + scroll, mouseButton))
+            IGuiEventListener iguieventlistener = this.entryWidgets.get(i);
+            if (this.recordEdit(this.entryWidgetIndices.getInt(i), () -> iguieventlistener.mouseClicked(mouseX - (this.width - this.xSize) / 2f, mouseY - (this.height - this.ySize) / 2f + scroll, mouseButton)))
             {
                 this.setFocused(iguieventlistener);
                 if (mouseButton == 0)
@@ -314,8 +429,9 @@ public abstract class ValueContainerEditorScreenImpl extends ValueContainerEdito
         IGuiEventListener focused = this.getFocused();
         if (focused != null && this.isDragging() && mouseButton == 0)
         {
-            if (focused instanceof Widget && this.entryWidgets.contains(focused))
-                return focused.mouseDragged(mouseX - (this.width - this.xSize) / 2f, mouseY - (this.height - this.ySize) / 2f, mouseButton, deltaX, deltaY);
+            int index = this.getEntryIndex(focused);
+            if (index != -1)
+                return this.recordEdit(index, () -> focused.mouseDragged(mouseX - (this.width - this.xSize) / 2f, mouseY - (this.height - this.ySize) / 2f, mouseButton, deltaX, deltaY));
             if (super.mouseDragged(mouseX, mouseY, mouseButton, deltaX, deltaY))
                 return true;
         }
@@ -22,8 +22,8 @@ import java.util.function.Predicate;
 public class ValueContainerEntrySliderImpl extends AbstractSlider
 {
     private final DecimalFormat format;
-    private final ValueContainerEntry<?> entry;
-    private final SliderEntry sliderEntry;
+    private ValueContainerEntry<?> entry;
+    private SliderEntry sliderEntry;
 
     public ValueContainerEntrySliderImpl(ValueContainerEntry<?> entry, int x, int y, int width, int height)
     {
@@ -33,8 +33,7 @@ public class ValueContainerEntrySliderImpl extends AbstractSlider
         this.format = this.createDecimalFormat();
         this.entry = entry;
         this.sliderEntry = (SliderEntry) entry;
-        this.value = (this.sliderEntry.getSliderValue() - this.sliderEntry.getMinSliderValue()) / (this.sliderEntry.getMaxSliderValue() - this.sliderEntry.getMinSliderValue());
-        this.updateMessage();
+        this.refresh();
     }
 
     @Override
@@ -54,8 +53,11 @@ public class ValueContainerEntrySliderImpl extends AbstractSlider
     @Override
     protected void applyValue()
     {
-        Optional<Predicate<String>> optional = this.entry.getValidator();
         double sliderValue = this.value * (this.sliderEntry.getMaxSliderValue() - this.sliderEntry.getMinSliderValue()) + this.sliderEntry.getMinSliderValue();
+        if (this.sliderEntry.setSliderValue(this.sliderEntry.isDecimal() ? sliderValue : Math.floor(sliderValue)))
+            return;
+
+        Optional<Predicate<String>> optional = this.entry.getValidator();
         String value = String.valueOf(this.sliderEntry.isDecimal() ? sliderValue : Math.floor(sliderValue));
         if (optional.isPresent() && !optional.get().test(value))
             return;
@@ -63,6 +65,32 @@ public class ValueContainerEntrySliderImpl extends AbstractSlider
         this.entry.parse(value);
     }
 
+    /**
+     * Moves the slider to the current value of the entry.
+     *
+     * @since 5.1.0
+     */
+    public void refresh()
+    {
+        this.value = (this.sliderEntry.getSliderValue() - this.sliderEntry.getMinSliderValue()) / (this.sliderEntry.getMaxSliderValue() - this.sliderEntry.getMinSliderValue());
+        this.updateMessage();
+    }
+
+    /**
+     * Changes the entry this slider modifies, so the slider can be reused for another entry.
+     *
+     * @param entry The new entry to modify
+     * @since 5.1.0
+     */
+    public void setEntry(ValueContainerEntry<?> entry)
+    {
+        if (!(entry instanceof SliderEntry))
+            throw new IllegalStateException("Entry '" + entry + "' needs to implement SliderEntry in order to use the SLIDER type");
+        this.entry = entry;
+        this.sliderEntry = (SliderEntry) entry;
+        this.refresh();
+    }
+
     /**
      * @return A new decimal format for decimal values on the slider
      */
@@ -16,16 +16,13 @@ import net.minecraftforge.api.distmarker.OnlyIn;
 @OnlyIn(Dist.CLIENT)
 public class ValueContainerEntrySwitchImpl extends AbstractButton
 {
-    private final ValueContainerEntry<?> entry;
-    private final SwitchEntry switchEntry;
+    private ValueContainerEntry<?> entry;
+    private SwitchEntry switchEntry;
 
     public ValueContainerEntrySwitchImpl(ValueContainerEntry<?> entry, int x, int y, int width, int height)
     {
         super(x, y, width, height, entry.getDisplay());
-        if (!(entry instanceof SwitchEntry))
-            throw new IllegalStateException("Entry '" + entry + "' needs to implement ToggleEntry in order to use the SWITCH type");
-        this.switchEntry = (SwitchEntry) entry;
-        this.entry = entry;
+        this.setEntry(entry);
     }
 
     private void onPress(int mouseButton)
@@ -66,6 +63,21 @@ public class ValueContainerEntrySwitchImpl extends AbstractButton
         return mouseButton == 0 || mouseButton == 1;
     }
 
+    /**
+     * Changes the entry this button modifies, so the button can be reused for another entry.
+     *
+     * @param entry The new entry to modify
+     * @since 5.1.0
+     */
+    public void setEntry(ValueContainerEntry<?> entry)
+    {
+        if (!(entry instanceof SwitchEntry))
+            throw new IllegalStateException("Entry '" + entry + "' needs to implement ToggleEntry in order to use the SWITCH type");
+        this.switchEntry = (SwitchEntry) entry;
+        this.entry = entry;
+        this.setMessage(entry.getDisplay());
+    }
+
     /**
      * @return The entry this button modifies
      */
@@ -19,18 +19,14 @@ import java.util.function.Predicate;
 @OnlyIn(Dist.CLIENT)
 public class ValueContainerEntryToggleImpl extends AbstractButton
 {
-    private final ValueContainerEntry<?> entry;
-    private final ToggleEntry toggleEntry;
+    private ValueContainerEntry<?> entry;
+    private ToggleEntry toggleEntry;
     private boolean toggled;
 
     public ValueContainerEntryToggleImpl(ValueContainerEntry<?> entry, int x, int y, int width, int height)
     {
         super(x, y, width, height, entry.getDisplay());
-        if (!(entry instanceof ToggleEntry))
-            throw new IllegalStateException("Entry '" + entry + "' needs to implement ToggleEntry in order to use the TOGGLE type");
-        this.toggleEntry = (ToggleEntry) entry;
-        this.entry = entry;
-        this.setToggled(this.toggleEntry.isToggled());
+        this.setEntry(entry);
     }
 
     @Override
@@ -45,6 +41,21 @@ public class ValueContainerEntryToggleImpl extends AbstractButton
         this.entry.parse(value);
     }
 
+    /**
+     * Changes the entry this button modifies, so the button can be reused for another entry.
+     *
+     * @param entry The new entry to modify
+     * @since 5.1.0
+     */
+    public void setEntry(ValueContainerEntry<?> entry)
+    {
+        if (!(entry instanceof ToggleEntry))
+            throw new IllegalStateException("Entry '" + entry + "' needs to implement ToggleEntry in order to use the TOGGLE type");
+        this.toggleEntry = (ToggleEntry) entry;
+        this.entry = entry;
+        this.setToggled(this.toggleEntry.isToggled());
+    }
+
     /**
      * @return The entry this button modifies
      */
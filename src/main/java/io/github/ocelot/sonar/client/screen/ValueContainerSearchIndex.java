@@ -0,0 +1,132 @@
+package io.github.ocelot.sonar.client.screen;
+
+import io.github.ocelot.sonar.common.valuecontainer.ValueContainerEntry;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.ints.IntLists;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * <p>Finds {@link ValueContainerEntry} with a name or display name containing some text.</p>
+ * <p>All parts of each name up to {@link #GRAM_SIZE} characters long are indexed when created. Short searches are answered directly from the index. Longer searches only check the previous results when they continue the previous search, such as while typing,
+ * or otherwise the entries that contain the least common part of the search.</p>
+ *
+ * @author Ocelot
+ * @since 5.1.0
+ */
+@OnlyIn(Dist.CLIENT)
+public class ValueContainerSearchIndex
+{
+    /**
+     * The maximum number of characters in each indexed part of a name.
+     */
+    public static final int GRAM_SIZE = 3;
+    private static final int[] EMPTY = new int[0];
+
+    private final String[] texts;
+    private final Map<String, int[]> grams;
+    private final IntList all;
+    private String lastQuery;
+    private IntList lastResult;
+
+    public ValueContainerSearchIndex(List<ValueContainerEntry<?>> entries)
+    {
+        this.texts = new String[entries.size()];
+        Map<String, IntList> grams = new HashMap<>();
+        IntList all = new IntArrayList(entries.size());
+        for (int i = 0; i < entries.size(); i++)
+        {
+            ValueContainerEntry<?> entry = entries.get(i);
+            String text = (entry.getName() + '\n' + entry.getDisplayName().getString()).toLowerCase(Locale.ROOT);
+            this.texts[i] = text;
+            all.add(i);
+
+            for (int length = 1; length <= GRAM_SIZE; length++)
+            {
+                for (int start = 0; start + length <= text.length(); start++)
+                {
+                    String gram = text.substring(start, start + length);
+                    if (gram.indexOf('\n') != -1)
+                        continue;
+                    IntList list = grams.computeIfAbsent(gram, key -> new IntArrayList());
+                    if (list.isEmpty() || list.getInt(list.size() - 1) != i)
+                        list.add(i);
+                }
+            }
+        }
+
+        this.grams = new HashMap<>(grams.size());
+        grams.forEach((gram, list) -> this.grams.put(gram, list.toIntArray()));
+        this.all = IntLists.unmodifiable(all);
+        this.lastQuery = "";
+        this.lastResult = this.all;
+    }
+
+    /**
+     * Finds all entries that have the specified text in their name or display name, ignoring case.
+     *
+     * @param query The text to search for
+     * @return The indices of all matching entries in ascending order
+     */
+    public IntList search(String query)
+    {
+        query = query.trim().toLowerCase(Locale.ROOT);
+        if (query.isEmpty())
+            return this.all;
+        if (query.equals(this.lastQuery))
+            return this.lastResult;
+
+        IntList result;
+        if (query.length() <= GRAM_SIZE)
+        {
+            result = IntLists.unmodifiable(IntArrayList.wrap(this.grams.getOrDefault(query, EMPTY)));
+        }
+        else if (!this.lastQuery.isEmpty() && query.startsWith(this.lastQuery))
+        {
+            result = this.filter(this.lastResult, query);
+        }
+        else
+        {
+            int[] candidates = null;
+            for (int start = 0; start + GRAM_SIZE <= query.length(); start++)
+            {
+                int[] postings = this.grams.getOrDefault(query.substring(start, start + GRAM_SIZE), EMPTY);
+                if (candidates == null || postings.length < candidates.length)
+                    candidates = postings;
+                if (candidates.length == 0)
+                    break;
+            }
+            result = this.filter(IntArrayList.wrap(candidates == null ? EMPTY : candidates), query);
+        }
+
+        this.lastQuery = query;
+        this.lastResult = result;
+        return result;
+    }
+
+    private IntList filter(IntList candidates, String query)
+    {
+        IntList result = new IntArrayList(candidates.size());
+        for (int i = 0; i < candidates.size(); i++)
+        {
+            int index = candidates.getInt(i);
+            if (this.texts[index].contains(query))
+                result.add(index);
+        }
+        return IntLists.unmodifiable(result);
+    }
+
+    /**
+     * @return The number of entries indexed
+     */
+    public int size()
+    {
+        return this.texts.length;
+    }
+}
@@ -1,5 +1,6 @@
 package io.github.ocelot.sonar.common.block;
 
+import io.github.ocelot.sonar.common.util.IComparatorLevelProvider;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.IWaterLoggable;
@@ -99,6 +100,7 @@ public class BaseBlock extends Block
 
     /**
      * Calculates the comparator redstone value for the specified tile entity for the inventory items.
+     * If the tile entity or its item handler is an {@link IComparatorLevelProvider}, the cached level is returned instead of checking every slot.
      *
      * @param te The tile entity to get the override for
      * @return The redstone level output for that tile entity
@@ -107,11 +109,16 @@ public class BaseBlock extends Block
     {
         if (te == null)
             return 0;
+        if (te instanceof IComparatorLevelProvider)
+            return ((IComparatorLevelProvider) te).getComparatorLevel();
 
         LazyOptional<IItemHandler> itemCapability = te.getCapability(CapabilityItemHandler.ITEM_HANDLER_CAPABILITY);
         if (itemCapability.isPresent())
         {
             IItemHandler inventory = itemCapability.orElseThrow(() -> new NullPointerException("Inventory Capability was null when present!"));
+            if (inventory instanceof IComparatorLevelProvider)
+                return ((IComparatorLevelProvider) inventory).getComparatorLevel();
+
             boolean empty = true;
             float fillPercentage = 0.0F;
 
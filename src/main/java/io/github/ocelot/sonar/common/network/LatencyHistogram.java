@@ -0,0 +1,101 @@
+package io.github.ocelot.sonar.common.network;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>A lock-free histogram of durations in nanoseconds. Values are grouped into power of two buckets, so percentiles are accurate to within a factor of two.</p>
+ *
+ * @author Ocelot
+ * @since 5.1.0
+ */
+public class LatencyHistogram
+{
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets;
+    private final LongAdder count;
+    private final LongAdder total;
+
+    public LatencyHistogram()
+    {
+        this.buckets = new AtomicLongArray(BUCKETS);
+        this.count = new LongAdder();
+        this.total = new LongAdder();
+    }
+
+    /**
+     * Records the specified duration.
+     *
+     * @param nanos The duration in nanoseconds
+     */
+    public void record(long nanos)
+    {
+        if (nanos < 0)
+            nanos = 0;
+        this.buckets.incrementAndGet(64 - Long.numberOfLeadingZeros(nanos));
+        this.count.increment();
+        this.total.add(nanos);
+    }
+
+    /**
+     * Clears all recorded values.
+     */
+    public void reset()
+    {
+        for (int i = 0; i < BUCKETS; i++)
+            this.buckets.set(i, 0);
+        this.count.reset();
+        this.total.reset();
+    }
+
+    /**
+     * @return The number of values recorded
+     */
+    public long getCount()
+    {
+        return this.count.sum();
+    }
+
+    /**
+     * @return The sum of all recorded values in nanoseconds
+     */
+    public long getTotal()
+    {
+        return this.total.sum();
+    }
+
+    /**
+     * @return The average recorded value in nanoseconds
+     */
+    public double getMean()
+    {
+        long count = this.getCount();
+        return count == 0 ? 0 : (double) this.getTotal() / (double) count;
+    }
+
+    /**
+     * Estimates the value below which the specified percentage of values fall.
+     *
+     * @param percentile The percentile to get from <code>0</code> to <code>1</code>
+     * @return The upper bound of the bucket containing that percentile in nanoseconds
+     */
+    public long getPercentile(double percentile)
+    {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++)
+            count += this.buckets.get(i);
+        if (count == 0)
+            return 0;
+
+        long target = (long) Math.ceil(Math.max(0, Math.min(1, percentile)) * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            seen += this.buckets.get(i);
+            if (seen >= target && seen > 0)
+                return i == 0 ? 0 : (1L << i) - 1;
+        }
+        return Long.MAX_VALUE;
+    }
+}
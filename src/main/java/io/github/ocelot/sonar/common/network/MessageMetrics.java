@@ -0,0 +1,149 @@
+package io.github.ocelot.sonar.common.network;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Counters and timings for a single type of message registered in a {@link SonarNetworkManager}.</p>
+ *
+ * @author Ocelot
+ * @see NetworkMetrics
+ * @since 5.1.0
+ */
+public class MessageMetrics
+{
+    private final Class<?> messageClass;
+    private final LongAdder sent;
+    private final LongAdder sentBytes;
+    private final LongAdder received;
+    private final LongAdder receivedBytes;
+    private final LatencyHistogram encodeTime;
+    private final LatencyHistogram decodeTime;
+    private final LatencyHistogram handleTime;
+    private final LatencyHistogram queueDelay;
+
+    public MessageMetrics(Class<?> messageClass)
+    {
+        this.messageClass = messageClass;
+        this.sent = new LongAdder();
+        this.sentBytes = new LongAdder();
+        this.received = new LongAdder();
+        this.receivedBytes = new LongAdder();
+        this.encodeTime = new LatencyHistogram();
+        this.decodeTime = new LatencyHistogram();
+        this.handleTime = new LatencyHistogram();
+        this.queueDelay = new LatencyHistogram();
+    }
+
+    /**
+     * Records a message being encoded.
+     *
+     * @param bytes The number of bytes written
+     * @param nanos The time it took to encode in nanoseconds
+     */
+    public void recordSent(int bytes, long nanos)
+    {
+        this.sent.increment();
+        this.sentBytes.add(bytes);
+        this.encodeTime.record(nanos);
+    }
+
+    /**
+     * Records a message being decoded.
+     *
+     * @param bytes The number of bytes read
+     * @param nanos The time it took to decode in nanoseconds
+     */
+    public void recordReceived(int bytes, long nanos)
+    {
+        this.received.increment();
+        this.receivedBytes.add(bytes);
+        this.decodeTime.record(nanos);
+    }
+
+    /**
+     * Clears all recorded values.
+     */
+    public void reset()
+    {
+        this.sent.reset();
+        this.sentBytes.reset();
+        this.received.reset();
+        this.receivedBytes.reset();
+        this.encodeTime.reset();
+        this.decodeTime.reset();
+        this.handleTime.reset();
+        this.queueDelay.reset();
+    }
+
+    /**
+     * @return The class of message these metrics are for
+     */
+    public Class<?> getMessageClass()
+    {
+        return messageClass;
+    }
+
+    /**
+     * @return The number of messages sent
+     */
+    public long getSent()
+    {
+        return this.sent.sum();
+    }
+
+    /**
+     * @return The number of bytes sent, excluding packet headers
+     */
+    public long getSentBytes()
+    {
+        return this.sentBytes.sum();
+    }
+
+    /**
+     * @return The number of messages received
+     */
+    public long getReceived()
+    {
+        return this.received.sum();
+    }
+
+    /**
+     * @return The number of bytes received, excluding packet headers
+     */
+    public long getReceivedBytes()
+    {
+        return this.receivedBytes.sum();
+    }
+
+    /**
+     * @return The time taken to write messages
+     */
+    public LatencyHistogram getEncodeTime()
+    {
+        return encodeTime;
+    }
+
+    /**
+     * @return The time taken to read messages
+     */
+    public LatencyHistogram getDecodeTime()
+    {
+        return decodeTime;
+    }
+
+    /**
+     * @return The time taken by {@link io.github.ocelot.sonar.common.network.message.SonarMessage#processPacket(Object, net.minecraftforge.fml.network.NetworkEvent.Context)}
+     */
+    public LatencyHistogram getHandleTime()
+    {
+        return handleTime;
+    }
+
+    /**
+     * @return The time from a message being received to work queued for it starting on the main thread
+     */
+    public LatencyHistogram getQueueDelay()
+    {
+        return queueDelay;
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.ocelot.sonar.common.network;
+
+import java.util.Collection;
+
+/**
+ * <p>Provides access to per message metrics for a network channel.</p>
+ *
+ * @author Ocelot
+ * @see MessageMetrics
+ * @see NetworkStatsCommand
+ * @since 5.1.0
+ */
+public interface NetworkMetrics
+{
+    /**
+     * @return The metrics for each registered type of message
+     */
+    Collection<MessageMetrics> getMessageMetrics();
+
+    /**
+     * Sets whether or not metrics should be recorded. Recording is disabled by default, so messages do not pay for timing unless metrics are needed.
+     *
+     * @param enabled Whether or not to record metrics
+     */
+    void setMetricsEnabled(boolean enabled);
+
+    /**
+     * @return Whether or not metrics are currently being recorded
+     */
+    boolean isMetricsEnabled();
+
+    /**
+     * Clears all recorded metrics.
+     */
+    default void resetMetrics()
+    {
+        this.getMessageMetrics().forEach(MessageMetrics::reset);
+    }
+}
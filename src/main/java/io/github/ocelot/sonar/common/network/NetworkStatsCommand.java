@@ -0,0 +1,95 @@
+package io.github.ocelot.sonar.common.network;
+
+import com.mojang.brigadier.CommandDispatcher;
+import net.minecraft.command.CommandSource;
+import net.minecraft.command.Commands;
+import net.minecraft.util.text.StringTextComponent;
+import net.minecraft.util.text.TextFormatting;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * <p>Registers the <code>/sonar netstats</code> command which prints the {@link NetworkMetrics} of network managers, sorted by the total number of bytes sent and received.</p>
+ * <p><code>/sonar netstats reset</code> clears all recorded metrics. Metrics are only recorded between <code>/sonar netstats start</code> and <code>/sonar netstats stop</code>.</p>
+ *
+ * @author Ocelot
+ * @since 5.1.0
+ */
+public final class NetworkStatsCommand
+{
+    private NetworkStatsCommand()
+    {
+    }
+
+    /**
+     * Registers the network stats command. Should be called from {@link net.minecraftforge.fml.event.server.FMLServerStartingEvent}.
+     *
+     * @param dispatcher The dispatcher to register the command to
+     * @param metrics    The metrics to display
+     */
+    public static void register(CommandDispatcher<CommandSource> dispatcher, NetworkMetrics... metrics)
+    {
+        dispatcher.register(Commands.literal("sonar").requires(source -> source.hasPermissionLevel(2))
+                .then(Commands.literal("netstats")
+                        .executes(ctx -> printStats(ctx.getSource(), metrics))
+                        .then(Commands.literal("start").executes(ctx -> setEnabled(ctx.getSource(), true, metrics)))
+                        .then(Commands.literal("stop").executes(ctx -> setEnabled(ctx.getSource(), false, metrics)))
+                        .then(Commands.literal("reset").executes(ctx ->
+                        {
+                            Arrays.stream(metrics).forEach(NetworkMetrics::resetMetrics);
+                            ctx.getSource().sendFeedback(new StringTextComponent("Network stats have been reset"), true);
+                            return 1;
+                        }))));
+    }
+
+    private static int setEnabled(CommandSource source, boolean enabled, NetworkMetrics... metrics)
+    {
+        for (NetworkMetrics networkMetrics : metrics)
+            networkMetrics.setMetricsEnabled(enabled);
+        source.sendFeedback(new StringTextComponent(enabled ? "Started recording network stats" : "Stopped recording network stats"), true);
+        return metrics.length;
+    }
+
+    private static int printStats(CommandSource source, NetworkMetrics... metrics)
+    {
+        List<MessageMetrics> messages = new ArrayList<>();
+        for (NetworkMetrics networkMetrics : metrics)
+            messages.addAll(networkMetrics.getMessageMetrics());
+        messages.sort(Comparator.comparingLong((MessageMetrics message) -> message.getSentBytes() + message.getReceivedBytes()).reversed());
+
+        if (messages.isEmpty())
+        {
+            source.sendFeedback(new StringTextComponent("No messages have been registered"), false);
+            return 0;
+        }
+        if (Arrays.stream(metrics).noneMatch(NetworkMetrics::isMetricsEnabled))
+            source.sendFeedback(new StringTextComponent("Network stats are not being recorded, use /sonar netstats start").applyTextStyle(TextFormatting.GRAY), false);
+
+        for (MessageMetrics message : messages)
+        {
+            source.sendFeedback(new StringTextComponent(message.getMessageClass().getSimpleName()).applyTextStyle(TextFormatting.YELLOW), false);
+            source.sendFeedback(new StringTextComponent(String.format(Locale.ROOT, "  Sent: %d (%s), Received: %d (%s)", message.getSent(), formatBytes(message.getSentBytes()), message.getReceived(), formatBytes(message.getReceivedBytes()))), false);
+            source.sendFeedback(new StringTextComponent(String.format(Locale.ROOT, "  Encode: %s, Decode: %s", formatTime(message.getEncodeTime()), formatTime(message.getDecodeTime()))), false);
+            source.sendFeedback(new StringTextComponent(String.format(Locale.ROOT, "  Handle: %s, Queue: %s", formatTime(message.getHandleTime()), formatTime(message.getQueueDelay()))), false);
+        }
+        return messages.size();
+    }
+
+    private static String formatBytes(long bytes)
+    {
+        if (bytes < 1024)
+            return bytes + " B";
+        if (bytes < 1024 * 1024)
+            return String.format(Locale.ROOT, "%.1f KiB", bytes / 1024.0);
+        return String.format(Locale.ROOT, "%.1f MiB", bytes / (1024.0 * 1024.0));
+    }
+
+    private static String formatTime(LatencyHistogram histogram)
+    {
+        return String.format(Locale.ROOT, "avg %.1fus p50 %.1fus p99 %.1fus", histogram.getMean() / 1000.0, histogram.getPercentile(0.5) / 1000.0, histogram.getPercentile(0.99) / 1000.0);
+    }
+}
@@ -1,10 +1,13 @@
 package io.github.ocelot.sonar.common.network;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.github.ocelot.sonar.common.network.message.SonarLoginMessage;
 import io.github.ocelot.sonar.common.network.message.SonarMessage;
 import net.minecraft.network.NetworkManager;
+import net.minecraft.network.login.server.SDisconnectLoginPacket;
 import net.minecraft.network.play.server.SDisconnectPacket;
 import net.minecraft.util.LazyValue;
+import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraft.util.text.TranslationTextComponent;
 import net.minecraftforge.fml.network.FMLHandshakeHandler;
@@ -16,61 +19,168 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
  * <p>Manages the registering of network messages between the client and server.</p>
+ * <p>Metrics are only recorded after {@link #setMetricsEnabled(boolean)} is used to enable them. To measure how long work waits for the main thread, handlers should queue work using {@link #enqueueWork(NetworkEvent.Context, Runnable)}.</p>
  *
  * @author Ocelot
  * @since 3.2.0
  */
-public class SonarNetworkManager
+public class SonarNetworkManager implements NetworkMetrics
 {
     private static final Logger LOGGER = LogManager.getLogger();
+    private static final ThreadLocal<QueueTimer> QUEUE_TIMER = new ThreadLocal<>();
+    private static final Executor WORKER_EXECUTOR = Executors.newFixedThreadPool(MathHelper.clamp(Runtime.getRuntime().availableProcessors() - 1, 1, 4), new ThreadFactoryBuilder().setNameFormat("Sonar Network Worker %d").setDaemon(true).build());
     private final SimpleChannel channel;
     private final LazyValue<Supplier<Object>> clientMessageHandler;
     private final LazyValue<Supplier<Object>> serverMessageHandler;
+    private final Executor workerExecutor;
+    private final Map<Class<?>, MessageMetrics> metrics;
+    private volatile boolean metricsEnabled;
     private int nextId;
 
     public SonarNetworkManager(SimpleChannel channel, Supplier<Supplier<Object>> clientSupplier, Supplier<Supplier<Object>> serverSupplier)
+    {
+        this(channel, clientSupplier, serverSupplier, WORKER_EXECUTOR);
+    }
+
+    public SonarNetworkManager(SimpleChannel channel, Supplier<Supplier<Object>> clientSupplier, Supplier<Supplier<Object>> serverSupplier, Executor workerExecutor)
     {
         this.channel = channel;
         this.clientMessageHandler = new LazyValue<>(clientSupplier);
         this.serverMessageHandler = new LazyValue<>(serverSupplier);
+        this.workerExecutor = workerExecutor;
+        this.metrics = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Queues the specified work to run on the main thread of the side receiving the message. If metrics are enabled, the time the work waited is recorded as the queue delay of the message.
+     * Should be used instead of {@link NetworkEvent.Context#enqueueWork(Runnable)} from inside {@link SonarMessage#processPacket(Object, NetworkEvent.Context)}.
+     *
+     * @param ctx      The context of the message being processed
+     * @param runnable The work to run on the main thread
+     * @return A future that completes once the work has run
+     * @since 5.1.0
+     */
+    public static CompletableFuture<Void> enqueueWork(NetworkEvent.Context ctx, Runnable runnable)
+    {
+        QueueTimer timer = QUEUE_TIMER.get();
+        if (timer == null)
+            return ctx.enqueueWork(runnable);
+        return ctx.enqueueWork(() ->
+        {
+            timer.metrics.getQueueDelay().record(System.nanoTime() - timer.receivedTime);
+            runnable.run();
+        });
+    }
+
+    /**
+     * Closes the connection a message failed to be processed on. The server always disconnects the client.
+     * The client only disconnects during login, since the server would otherwise wait for a reply that will never be sent until the handshake times out.
+     */
+    private static void disconnect(NetworkEvent.Context ctx, Exception e)
+    {
+        NetworkDirection direction = ctx.getDirection();
+        boolean login = direction == NetworkDirection.LOGIN_TO_CLIENT || direction == NetworkDirection.LOGIN_TO_SERVER;
+        ITextComponent textComponent = new TranslationTextComponent("disconnect.genericReason", "Internal Exception: " + e);
+        NetworkManager networkManager = ctx.getNetworkManager();
+        if (direction.getReceptionSide().isServer())
+        {
+            networkManager.sendPacket(login ? new SDisconnectLoginPacket(textComponent) : new SDisconnectPacket(textComponent), future -> networkManager.closeChannel(textComponent));
+            networkManager.disableAutoRead();
+        }
+        else if (login)
+        {
+            networkManager.closeChannel(textComponent);
+        }
     }
 
     @SuppressWarnings("unchecked")
-    private <MSG extends SonarMessage<T>, T> boolean processMessage(MSG msg, Supplier<NetworkEvent.Context> ctx)
+    private <MSG extends SonarMessage<T>, T> boolean processMessage(MSG msg, Supplier<NetworkEvent.Context> ctx, MessageMetrics metrics, long receivedTime)
     {
+        boolean metricsEnabled = this.metricsEnabled && receivedTime != 0;
+        long startTime = metricsEnabled ? System.nanoTime() : 0;
         try
         {
+            if (metricsEnabled)
+                QUEUE_TIMER.set(new QueueTimer(metrics, receivedTime));
             msg.processPacket((T) (ctx.get().getDirection().getReceptionSide().isClient() ? this.clientMessageHandler.getValue().get() : this.serverMessageHandler.getValue().get()), ctx.get());
             return true;
         }
         catch (Exception e)
         {
             LOGGER.error("Failed to process packet for class: " + msg.getClass().getName(), e);
-            if (ctx.get().getDirection().getReceptionSide().isServer())
+            disconnect(ctx.get(), e);
+            return false;
+        }
+        finally
+        {
+            if (metricsEnabled)
             {
-                ITextComponent textComponent = new TranslationTextComponent("disconnect.genericReason", "Internal Exception: " + e);
-                NetworkManager networkManager = ctx.get().getNetworkManager();
-                networkManager.sendPacket(new SDisconnectPacket(textComponent), future -> networkManager.closeChannel(textComponent));
-                networkManager.disableAutoRead();
+                QUEUE_TIMER.remove();
+                metrics.getHandleTime().record(System.nanoTime() - startTime);
             }
-            return false;
         }
     }
 
-    private <MSG extends SonarMessage<T>, T> SimpleChannel.MessageBuilder<MSG> getMessageBuilder(Class<MSG> clazz, Supplier<MSG> generator, @Nullable NetworkDirection direction)
+    private <MSG extends SonarMessage<T>, T> SimpleChannel.MessageBuilder.ToBooleanBiFunction<MSG, Supplier<NetworkEvent.Context>> createConsumer(MessageMetrics metrics, boolean async)
+    {
+        return (msg, ctx) ->
+        {
+            long receivedTime = this.metricsEnabled ? System.nanoTime() : 0;
+            if (!async)
+                return this.processMessage(msg, ctx, metrics, receivedTime);
+
+            NetworkEvent.Context context = ctx.get();
+            this.workerExecutor.execute(() -> this.processMessage(msg, () -> context, metrics, receivedTime));
+            return true;
+        };
+    }
+
+    private <MSG extends SonarMessage<T>, T> SimpleChannel.MessageBuilder<MSG> getMessageBuilder(Class<MSG> clazz, Supplier<MSG> generator, @Nullable NetworkDirection direction, MessageMetrics metrics)
     {
-        return this.channel.messageBuilder(clazz, this.nextId++, direction).encoder(SonarMessage::writePacketData).decoder(buf ->
+        return this.channel.messageBuilder(clazz, this.nextId++, direction).encoder((msg, buf) ->
+        {
+            if (!this.metricsEnabled)
+            {
+                msg.writePacketData(buf);
+                return;
+            }
+            long startTime = System.nanoTime();
+            int startIndex = buf.writerIndex();
+            msg.writePacketData(buf);
+            metrics.recordSent(buf.writerIndex() - startIndex, System.nanoTime() - startTime);
+        }).decoder(buf ->
         {
+            if (!this.metricsEnabled)
+            {
+                MSG msg = generator.get();
+                msg.readPacketData(buf);
+                return msg;
+            }
+            long startTime = System.nanoTime();
+            int startIndex = buf.readerIndex();
             MSG msg = generator.get();
             msg.readPacketData(buf);
+            metrics.recordReceived(buf.readerIndex() - startIndex, System.nanoTime() - startTime);
             return msg;
-        }).consumer((SimpleChannel.MessageBuilder.ToBooleanBiFunction<MSG, Supplier<NetworkEvent.Context>>) this::processMessage);
+        });
+    }
+
+    private MessageMetrics getMetrics(Class<?> clazz)
+    {
+        return this.metrics.computeIfAbsent(clazz, MessageMetrics::new);
     }
 
     /**
@@ -84,7 +194,24 @@ public class SonarNetworkManager
      */
     public <MSG extends SonarMessage<T>, T> void register(Class<MSG> clazz, Supplier<MSG> generator, @Nullable NetworkDirection direction)
     {
-        getMessageBuilder(clazz, generator, direction).add();
+        MessageMetrics metrics = this.getMetrics(clazz);
+        getMessageBuilder(clazz, generator, direction, metrics).consumer(this.createConsumer(metrics, false)).add();
+    }
+
+    /**
+     * <p>Registers a message intended to be sent during the play network phase that is processed on the network worker pool instead of the network thread.</p>
+     * <p>{@link SonarMessage#processPacket(Object, NetworkEvent.Context)} is free to do expensive work such as validation or decompression, but must use {@link NetworkEvent.Context#enqueueWork(Runnable)} for anything that touches the world.</p>
+     *
+     * @param clazz     The class of the message
+     * @param generator The generator for a new message
+     * @param direction The direction the message should be able to go or null for bi-directional
+     * @param <MSG>     The type of message to be sent
+     * @param <T>       The handler that will process the message. Should be an interface to avoid loading client classes on server
+     */
+    public <MSG extends SonarMessage<T>, T> void registerAsync(Class<MSG> clazz, Supplier<MSG> generator, @Nullable NetworkDirection direction)
+    {
+        MessageMetrics metrics = this.getMetrics(clazz);
+        getMessageBuilder(clazz, generator, direction, metrics).consumer(this.createConsumer(metrics, true)).add();
     }
 
     /**
@@ -98,13 +225,9 @@ public class SonarNetworkManager
      */
     public <MSG extends SonarLoginMessage<T>, T> void registerLoginReply(Class<MSG> clazz, Supplier<MSG> generator, @Nullable NetworkDirection direction)
     {
-        this.channel.messageBuilder(clazz, this.nextId++, direction).encoder(SonarMessage::writePacketData).decoder(buf ->
-        {
-            MSG msg = generator.get();
-            msg.readPacketData(buf);
-            return msg;
-        })
-                .consumer(FMLHandshakeHandler.indexFirst((__, msg, ctx) -> ctx.get().setPacketHandled(this.processMessage(msg, ctx))))
+        MessageMetrics metrics = this.getMetrics(clazz);
+        getMessageBuilder(clazz, generator, direction, metrics)
+                .consumer(FMLHandshakeHandler.indexFirst((__, msg, ctx) -> ctx.get().setPacketHandled(this.processMessage(msg, ctx, metrics, System.nanoTime()))))
                 .loginIndex(SonarLoginMessage::getAsInt, SonarLoginMessage::setLoginIndex)
                 .add();
     }
@@ -120,7 +243,9 @@ public class SonarNetworkManager
      */
     public <MSG extends SonarLoginMessage<T>, T> void registerLogin(Class<MSG> clazz, Supplier<MSG> generator, @Nullable NetworkDirection direction)
     {
-        getMessageBuilder(clazz, generator, direction)
+        MessageMetrics metrics = this.getMetrics(clazz);
+        getMessageBuilder(clazz, generator, direction, metrics)
+                .consumer(this.createConsumer(metrics, false))
                 .loginIndex(SonarLoginMessage::getAsInt, SonarLoginMessage::setLoginIndex)
                 .markAsLoginPacket()
                 .add();
@@ -138,9 +263,86 @@ public class SonarNetworkManager
      */
     public <MSG extends SonarLoginMessage<T>, T> void registerLogin(Class<MSG> clazz, Supplier<MSG> generator, Function<Boolean, List<Pair<String, MSG>>> loginPacketGenerators, @Nullable NetworkDirection direction)
     {
-        getMessageBuilder(clazz, generator, direction)
+        MessageMetrics metrics = this.getMetrics(clazz);
+        getMessageBuilder(clazz, generator, direction, metrics)
+                .consumer(this.createConsumer(metrics, false))
+                .loginIndex(SonarLoginMessage::getAsInt, SonarLoginMessage::setLoginIndex)
+                .buildLoginPacketList(loginPacketGenerators)
+                .add();
+    }
+
+    /**
+     * <p>Registers a message intended to be sent during the login network phase that is processed on the network worker pool instead of the network thread.</p>
+     * <p>Login messages registered this way are handled in parallel and do not block the handshake while being processed.
+     * The handler must reply using {@link SimpleChannel#reply(Object, NetworkEvent.Context)} once it has finished, which is safe to call from any thread.
+     * The server will not complete the handshake until every reply has been received. If the handler throws an exception, the connection is closed instead of leaving the handshake waiting for a reply.</p>
+     *
+     * @param clazz     The class of the message
+     * @param generator The generator for a new message
+     * @param direction The direction the message should be able to go or null for bi-directional
+     * @param <MSG>     The type of message to be sent
+     * @param <T>       The handler that will process the message. Should be an interface to avoid loading client classes on server
+     */
+    public <MSG extends SonarLoginMessage<T>, T> void registerLoginAsync(Class<MSG> clazz, Supplier<MSG> generator, @Nullable NetworkDirection direction)
+    {
+        MessageMetrics metrics = this.getMetrics(clazz);
+        getMessageBuilder(clazz, generator, direction, metrics)
+                .consumer(this.createConsumer(metrics, true))
+                .loginIndex(SonarLoginMessage::getAsInt, SonarLoginMessage::setLoginIndex)
+                .markAsLoginPacket()
+                .add();
+    }
+
+    /**
+     * <p>Registers a message intended to be sent during the login network phase that is processed on the network worker pool instead of the network thread. Allows the custom definition of login packets.</p>
+     * <p>Login messages registered this way are handled in parallel and do not block the handshake while being processed.
+     * The handler must reply using {@link SimpleChannel#reply(Object, NetworkEvent.Context)} once it has finished, which is safe to call from any thread.
+     * The server will not complete the handshake until every reply has been received. If the handler throws an exception, the connection is closed instead of leaving the handshake waiting for a reply.</p>
+     *
+     * @param clazz                 The class of the message
+     * @param generator             The generator for a new message
+     * @param loginPacketGenerators The function to generate login packets
+     * @param direction             The direction the message should be able to go or null for bi-directional
+     * @param <MSG>                 The type of message to be sent
+     * @param <T>                   The handler that will process the message. Should be an interface to avoid loading client classes on server
+     */
+    public <MSG extends SonarLoginMessage<T>, T> void registerLoginAsync(Class<MSG> clazz, Supplier<MSG> generator, Function<Boolean, List<Pair<String, MSG>>> loginPacketGenerators, @Nullable NetworkDirection direction)
+    {
+        MessageMetrics metrics = this.getMetrics(clazz);
+        getMessageBuilder(clazz, generator, direction, metrics)
+                .consumer(this.createConsumer(metrics, true))
                 .loginIndex(SonarLoginMessage::getAsInt, SonarLoginMessage::setLoginIndex)
                 .buildLoginPacketList(loginPacketGenerators)
                 .add();
     }
+
+    @Override
+    public Collection<MessageMetrics> getMessageMetrics()
+    {
+        return Collections.unmodifiableCollection(this.metrics.values());
+    }
+
+    @Override
+    public void setMetricsEnabled(boolean enabled)
+    {
+        this.metricsEnabled = enabled;
+    }
+
+    @Override
+    public boolean isMetricsEnabled()
+    {
+        return metricsEnabled;
+    }
+
+    private static class QueueTimer
+    {
+        private final MessageMetrics metrics;
+        private final long receivedTime;
+
+        private QueueTimer(MessageMetrics metrics, long receivedTime)
+        {
+            this.metrics = metrics;
+            this.receivedTime = receivedTime;
+        }
+    }
 }
@@ -0,0 +1,391 @@
+package io.github.ocelot.sonar.common.network.codec;
+
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.text.ITextComponent;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * <p>Reads and writes a single {@link MessageField} using method handles compiled once per field.</p>
+ *
+ * @author Ocelot
+ * @since 5.1.0
+ */
+abstract class FieldCodec
+{
+    private final String name;
+
+    private FieldCodec(String name)
+    {
+        this.name = name;
+    }
+
+    /**
+     * Writes the value of this field from the specified message.
+     *
+     * @param msg The message to get the value from
+     * @param buf The buffer to write to
+     */
+    abstract void write(Object msg, PacketBuffer buf) throws Throwable;
+
+    /**
+     * Reads the value of this field into the specified message.
+     *
+     * @param msg The message to set the value of
+     * @param buf The buffer to read from
+     */
+    abstract void read(Object msg, PacketBuffer buf) throws Throwable;
+
+    /**
+     * @return The name of the field this codec is for
+     */
+    String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Creates a new codec for the specified field.
+     *
+     * @param field The field to create a codec for
+     * @param info  The annotation on the field
+     * @return A new codec for that field
+     * @throws IllegalStateException If the field cannot be serialized
+     */
+    static FieldCodec create(Field field, MessageField info)
+    {
+        if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers()))
+            throw new IllegalStateException("Message field '" + field + "' must not be static or final");
+
+        MethodHandle getter;
+        MethodHandle setter;
+        try
+        {
+            field.setAccessible(true);
+            getter = MethodHandles.lookup().unreflectGetter(field);
+            setter = MethodHandles.lookup().unreflectSetter(field);
+        }
+        catch (Exception e)
+        {
+            throw new IllegalStateException("Failed to access message field '" + field + "'", e);
+        }
+
+        String name = field.getDeclaringClass().getName() + "#" + field.getName();
+        Class<?> type = field.getType();
+        if (type.isPrimitive())
+        {
+            getter = getter.asType(MethodType.methodType(type, Object.class));
+            setter = setter.asType(MethodType.methodType(void.class, Object.class, type));
+            if (type == boolean.class)
+                return new BooleanFieldCodec(name, getter, setter);
+            if (type == byte.class)
+                return new ByteFieldCodec(name, getter, setter);
+            if (type == short.class)
+                return new ShortFieldCodec(name, getter, setter);
+            if (type == char.class)
+                return new CharFieldCodec(name, getter, setter);
+            if (type == int.class)
+                return new IntFieldCodec(name, getter, setter);
+            if (type == long.class)
+                return new LongFieldCodec(name, getter, setter);
+            if (type == float.class)
+                return new FloatFieldCodec(name, getter, setter);
+            if (type == double.class)
+                return new DoubleFieldCodec(name, getter, setter);
+        }
+
+        getter = getter.asType(MethodType.methodType(Object.class, Object.class));
+        setter = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        if (type == String.class)
+        {
+            int maxLength = info.maxLength();
+            return new ObjectFieldCodec<String>(name, getter, setter, info.nullable(), PacketBuffer::writeString, buf -> buf.readString(maxLength));
+        }
+        if (type == UUID.class)
+            return new ObjectFieldCodec<UUID>(name, getter, setter, info.nullable(), PacketBuffer::writeUniqueId, PacketBuffer::readUniqueId);
+        if (type == BlockPos.class)
+            return new ObjectFieldCodec<BlockPos>(name, getter, setter, info.nullable(), PacketBuffer::writeBlockPos, PacketBuffer::readBlockPos);
+        if (type == ResourceLocation.class)
+            return new ObjectFieldCodec<ResourceLocation>(name, getter, setter, info.nullable(), PacketBuffer::writeResourceLocation, PacketBuffer::readResourceLocation);
+        if (type == CompoundNBT.class)
+            return new ObjectFieldCodec<CompoundNBT>(name, getter, setter, info.nullable(), PacketBuffer::writeCompoundTag, PacketBuffer::readCompoundTag);
+        if (type == ItemStack.class)
+            return new ObjectFieldCodec<ItemStack>(name, getter, setter, info.nullable(), PacketBuffer::writeItemStack, PacketBuffer::readItemStack);
+        if (type == ITextComponent.class)
+            return new ObjectFieldCodec<ITextComponent>(name, getter, setter, info.nullable(), PacketBuffer::writeTextComponent, PacketBuffer::readTextComponent);
+        if (type == byte[].class)
+            return new ObjectFieldCodec<byte[]>(name, getter, setter, info.nullable(), PacketBuffer::writeByteArray, PacketBuffer::readByteArray);
+        if (type == int[].class)
+            return new ObjectFieldCodec<int[]>(name, getter, setter, info.nullable(), PacketBuffer::writeVarIntArray, PacketBuffer::readVarIntArray);
+        if (type.isEnum())
+            return createEnumCodec(name, getter, setter, info.nullable(), type);
+
+        throw new IllegalStateException("Message field '" + field + "' has unsupported type " + type.getName());
+    }
+
+    private static FieldCodec createEnumCodec(String name, MethodHandle getter, MethodHandle setter, boolean nullable, Class<?> type)
+    {
+        Enum<?>[] values = (Enum<?>[]) type.getEnumConstants();
+        return new ObjectFieldCodec<Enum<?>>(name, getter, setter, nullable, (buf, value) -> buf.writeVarInt(value.ordinal()), buf ->
+        {
+            int ordinal = buf.readVarInt();
+            if (ordinal < 0 || ordinal >= values.length)
+                throw new IllegalStateException("Invalid ordinal " + ordinal + " for " + type.getName());
+            return values[ordinal];
+        });
+    }
+
+    private static class BooleanFieldCodec extends FieldCodec
+    {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        private BooleanFieldCodec(String name, MethodHandle getter, MethodHandle setter)
+        {
+            super(name);
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        void write(Object msg, PacketBuffer buf) throws Throwable
+        {
+            buf.writeBoolean((boolean) this.getter.invokeExact(msg));
+        }
+
+        @Override
+        void read(Object msg, PacketBuffer buf) throws Throwable
+        {
+            this.setter.invokeExact(msg, buf.readBoolean());
+        }
+    }
+
+    private static class ByteFieldCodec extends FieldCodec
+    {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        private ByteFieldCodec(String name, MethodHandle getter, MethodHandle setter)
+        {
+            super(name);
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        void write(Object msg, PacketBuffer buf) throws Throwable
+        {
+            buf.writeByte((byte) this.getter.invokeExact(msg));
+        }
+
+        @Override
+        void read(Object msg, PacketBuffer buf) throws Throwable
+        {
+            this.setter.invokeExact(msg, buf.readByte());
+        }
+    }
+
+    private static class ShortFieldCodec extends FieldCodec
+    {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        private ShortFieldCodec(String name, MethodHandle getter, MethodHandle setter)
+        {
+            super(name);
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        void write(Object msg, PacketBuffer buf) throws Throwable
+        {
+            buf.writeShort((short) this.getter.invokeExact(msg));
+        }
+
+        @Override
+        void read(Object msg, PacketBuffer buf) throws Throwable
+        {
+            this.setter.invokeExact(msg, buf.readShort());
+        }
+    }
+
+    private static class CharFieldCodec extends FieldCodec
+    {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        private CharFieldCodec(String name, MethodHandle getter, MethodHandle setter)
+        {
+            super(name);
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        void write(Object msg, PacketBuffer buf) throws Throwable
+        {
+            buf.writeChar((char) this.getter.invokeExact(msg));
+        }
+
+        @Override
+        void read(Object msg, PacketBuffer buf) throws Throwable
+        {
+            this.setter.invokeExact(msg, buf.readChar());
+        }
+    }
+
+    private static class IntFieldCodec extends FieldCodec
+    {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        private IntFieldCodec(String name, MethodHandle getter, MethodHandle setter)
+        {
+            super(name);
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        void write(Object msg, PacketBuffer buf) throws Throwable
+        {
+            buf.writeVarInt((int) this.getter.invokeExact(msg));
+        }
+
+        @Override
+        void read(Object msg, PacketBuffer buf) throws Throwable
+        {
+            this.setter.invokeExact(msg, buf.readVarInt());
+        }
+    }
+
+    private static class LongFieldCodec extends FieldCodec
+    {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        private LongFieldCodec(String name, MethodHandle getter, MethodHandle setter)
+        {
+            super(name);
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        void write(Object msg, PacketBuffer buf) throws Throwable
+        {
+            buf.writeVarLong((long) this.getter.invokeExact(msg));
+        }
+
+        @Override
+        void read(Object msg, PacketBuffer buf) throws Throwable
+        {
+            this.setter.invokeExact(msg, buf.readVarLong());
+        }
+    }
+
+    private static class FloatFieldCodec extends FieldCodec
+    {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        private FloatFieldCodec(String name, MethodHandle getter, MethodHandle setter)
+        {
+            super(name);
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        void write(Object msg, PacketBuffer buf) throws Throwable
+        {
+            buf.writeFloat((float) this.getter.invokeExact(msg));
+        }
+
+        @Override
+        void read(Object msg, PacketBuffer buf) throws Throwable
+        {
+            this.setter.invokeExact(msg, buf.readFloat());
+        }
+    }
+
+    private static class DoubleFieldCodec extends FieldCodec
+    {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        private DoubleFieldCodec(String name, MethodHandle getter, MethodHandle setter)
+        {
+            super(name);
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        void write(Object msg, PacketBuffer buf) throws Throwable
+        {
+            buf.writeDouble((double) this.getter.invokeExact(msg));
+        }
+
+        @Override
+        void read(Object msg, PacketBuffer buf) throws Throwable
+        {
+            this.setter.invokeExact(msg, buf.readDouble());
+        }
+    }
+
+    private static class ObjectFieldCodec<T> extends FieldCodec
+    {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+        private final boolean nullable;
+        private final BiConsumer<PacketBuffer, T> writer;
+        private final Function<PacketBuffer, T> reader;
+
+        private ObjectFieldCodec(String name, MethodHandle getter, MethodHandle setter, boolean nullable, BiConsumer<PacketBuffer, T> writer, Function<PacketBuffer, T> reader)
+        {
+            super(name);
+            this.getter = getter;
+            this.setter = setter;
+            this.nullable = nullable;
+            this.writer = writer;
+            this.reader = reader;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        void write(Object msg, PacketBuffer buf) throws Throwable
+        {
+            T value = (T) (Object) this.getter.invokeExact(msg);
+            if (this.nullable)
+            {
+                buf.writeBoolean(value != null);
+                if (value == null)
+                    return;
+            }
+            else if (value == null)
+            {
+                throw new NullPointerException("Message field '" + this.getName() + "' is not nullable");
+            }
+            this.writer.accept(buf, value);
+        }
+
+        @Override
+        void read(Object msg, PacketBuffer buf) throws Throwable
+        {
+            this.setter.invokeExact(msg, (Object) (!this.nullable || buf.readBoolean() ? this.reader.apply(buf) : null));
+        }
+    }
+}
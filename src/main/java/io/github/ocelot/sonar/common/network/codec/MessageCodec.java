@@ -0,0 +1,119 @@
+package io.github.ocelot.sonar.common.network.codec;
+
+import io.github.ocelot.sonar.common.network.message.SonarMessage;
+import net.minecraft.network.PacketBuffer;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * <p>Automatically serializes all fields marked with {@link MessageField} in a class.</p>
+ * <p>Codecs are built once per class and use method handles to access fields, so no reflection takes place when a message is written or read. Integers and longs are written as variable length numbers.</p>
+ *
+ * @author Ocelot
+ * @see MessageField
+ * @see io.github.ocelot.sonar.common.network.message.CodecSonarMessage
+ * @since 5.1.0
+ */
+public final class MessageCodec
+{
+    private static final ClassValue<MessageCodec> CODECS = new ClassValue<MessageCodec>()
+    {
+        @Override
+        protected MessageCodec computeValue(Class<?> type)
+        {
+            return new MessageCodec(type);
+        }
+    };
+
+    private final Class<?> type;
+    private final FieldCodec[] fields;
+
+    private MessageCodec(Class<?> type)
+    {
+        this.type = type;
+
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> clazz = type; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass())
+            hierarchy.add(0, clazz);
+
+        List<FieldCodec> fields = new ArrayList<>();
+        for (Class<?> clazz : hierarchy)
+        {
+            Field[] declaredFields = clazz.getDeclaredFields();
+            Arrays.sort(declaredFields, Comparator.comparing(Field::getName));
+            for (Field field : declaredFields)
+            {
+                MessageField info = field.getAnnotation(MessageField.class);
+                if (info != null)
+                    fields.add(FieldCodec.create(field, info));
+            }
+        }
+        this.fields = fields.toArray(new FieldCodec[0]);
+    }
+
+    /**
+     * Writes all message fields from the specified object.
+     *
+     * @param msg The message to write
+     * @param buf The buffer to write to
+     */
+    public void write(Object msg, PacketBuffer buf)
+    {
+        for (FieldCodec field : this.fields)
+        {
+            try
+            {
+                field.write(msg, buf);
+            }
+            catch (Throwable t)
+            {
+                throw new IllegalStateException("Failed to write message field '" + field.getName() + "'", t);
+            }
+        }
+    }
+
+    /**
+     * Reads all message fields into the specified object.
+     *
+     * @param msg The message to read into
+     * @param buf The buffer to read from
+     */
+    public void read(Object msg, PacketBuffer buf)
+    {
+        for (FieldCodec field : this.fields)
+        {
+            try
+            {
+                field.read(msg, buf);
+            }
+            catch (Throwable t)
+            {
+                throw new IllegalStateException("Failed to read message field '" + field.getName() + "'", t);
+            }
+        }
+    }
+
+    /**
+     * @return The class this codec serializes
+     */
+    public Class<?> getType()
+    {
+        return type;
+    }
+
+    /**
+     * Fetches or creates the codec for the specified class. Can be used to serialize any {@link SonarMessage} with annotated fields.
+     *
+     * @param type The class to get the codec for
+     * @return The codec for that class
+     * @throws IllegalStateException If any of the annotated fields cannot be serialized
+     */
+    public static MessageCodec get(Class<?> type)
+    {
+        return CODECS.get(type);
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.ocelot.sonar.common.network.codec;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>Marks a field to be automatically written and read by {@link MessageCodec}.</p>
+ * <p>Fields are serialized from the top of the class hierarchy down, and ordered by name within each class.</p>
+ *
+ * @author Ocelot
+ * @see MessageCodec
+ * @since 5.1.0
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface MessageField
+{
+    /**
+     * @return Whether or not this field can be <code>null</code>. Only used for object types
+     */
+    boolean nullable() default false;
+
+    /**
+     * @return The maximum length of this field. Only used for strings
+     */
+    int maxLength() default 32767;
+}
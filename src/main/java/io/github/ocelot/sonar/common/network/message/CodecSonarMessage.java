@@ -0,0 +1,35 @@
+package io.github.ocelot.sonar.common.network.message;
+
+import io.github.ocelot.sonar.common.network.codec.MessageCodec;
+import io.github.ocelot.sonar.common.network.codec.MessageField;
+import net.minecraft.network.PacketBuffer;
+
+/**
+ * <p>An implementation of {@link SonarMessage} that reads and writes all fields marked with {@link MessageField} automatically.</p>
+ *
+ * @param <T> The interface that should handle this message
+ * @author Ocelot
+ * @see MessageCodec
+ * @since 5.1.0
+ */
+public abstract class CodecSonarMessage<T> implements SonarMessage<T>
+{
+    private final MessageCodec codec;
+
+    protected CodecSonarMessage()
+    {
+        this.codec = MessageCodec.get(this.getClass());
+    }
+
+    @Override
+    public void readPacketData(PacketBuffer buf)
+    {
+        this.codec.read(this, buf);
+    }
+
+    @Override
+    public void writePacketData(PacketBuffer buf)
+    {
+        this.codec.write(this, buf);
+    }
+}
@@ -27,7 +27,7 @@ public interface SonarMessage<T>
     void writePacketData(PacketBuffer buf);
 
     /**
-     * Passes this message into the specified handler to process the message.
+     * Passes this message into the specified handler to process the message. This is called on the network thread, or on a network worker thread if the message was registered as async.
      *
      * @param handler The handler to process the message
      * @param ctx     The context of the message
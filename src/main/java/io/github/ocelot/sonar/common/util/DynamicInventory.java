@@ -1,36 +1,360 @@
 package io.github.ocelot.sonar.common.util;
 
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntRBTreeSet;
+import it.unimi.dsi.fastutil.ints.IntSortedSet;
 import net.minecraft.inventory.IInventory;
 import net.minecraft.inventory.IInventoryChangedListener;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.nbt.ListNBT;
+import net.minecraftforge.common.util.Constants;
 
-import java.util.HashSet;
-import java.util.Set;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.function.Predicate;
 
 /**
  * <p>A dynamic {@link IInventory} implementation.</p>
+ * <p>Occupied, partially filled and changed slots are tracked as stacks are added and removed, so inserting, saving and checking the comparator level only look at the slots involved instead of every slot.
+ * Stacks that are modified directly must be followed by a call to {@link #markDirty()}. To expose this inventory as an {@link net.minecraftforge.items.IItemHandler}, use {@link DynamicInventoryItemHandler}.</p>
  *
  * @author Ocelot
  * @since 3.1.0
  */
-public abstract class DynamicInventory implements IInventory
+public abstract class DynamicInventory implements IInventory, IComparatorLevelProvider
 {
-    private final Int2ObjectOpenHashMap<ItemStack> inventory;
+    private static final int MIN_DENSE_SLOTS = 16;
+    private static final long FILL_SCALE = 1 << 24;
+
+    private final StorageMode mode;
+    private Storage inventory;
+    private final BitSet occupied;
+    private final Map<ItemKey, IntSortedSet> partialSlots;
+    private final Int2ObjectOpenHashMap<ItemKey> partialSlotKeys;
+    private BitSet changedSlots;
+    private BitSet spareChangedSlots;
+    private final BitSet unsavedSlots;
+    private final Int2IntOpenHashMap savedPositions;
+    private final IntArrayList savedIndices;
+    private final Int2ObjectOpenHashMap<SlotState> knownSlots;
+    private ListNBT savedItems;
+    private boolean savedItemsShared;
+    private int savedSize;
+    private final Int2LongOpenHashMap slotFill;
+    private long fill;
+    private int fillSize;
     private Set<IInventoryChangedListener> listeners;
+    private Set<IDynamicInventoryListener> slotListeners;
+    private boolean deferred;
+    private boolean changed;
+    private boolean changedSlotsKnown;
+    private boolean unverified;
+    private List<Snapshot> snapshots;
+    private int modCount;
 
     public DynamicInventory()
     {
-        this.inventory = new Int2ObjectOpenHashMap<>();
+        this(StorageMode.AUTO);
+    }
+
+    public DynamicInventory(StorageMode mode)
+    {
+        this.mode = mode;
+        this.inventory = mode == StorageMode.DENSE ? new DenseStorage(0) : new SparseStorage();
+        this.occupied = new BitSet();
+        this.partialSlots = new HashMap<>();
+        this.partialSlotKeys = new Int2ObjectOpenHashMap<>();
+        this.changedSlots = new BitSet();
+        this.spareChangedSlots = new BitSet();
+        this.unsavedSlots = new BitSet();
+        this.savedPositions = new Int2IntOpenHashMap();
+        this.savedPositions.defaultReturnValue(-1);
+        this.savedIndices = new IntArrayList();
+        this.knownSlots = new Int2ObjectOpenHashMap<>();
+        this.savedItems = null;
+        this.slotFill = new Int2LongOpenHashMap();
+        this.fill = 0;
+        this.fillSize = 0;
         this.listeners = null;
+        this.slotListeners = null;
+    }
+
+    private void putStack(int index, ItemStack stack)
+    {
+        this.beforeSlotChange(index);
+        if (stack.isEmpty())
+        {
+            this.inventory.remove(index);
+            this.occupied.clear(index);
+        }
+        else
+        {
+            this.inventory.put(index, stack);
+            this.occupied.set(index);
+        }
+        this.markSlotChanged(index);
+        this.updatePartialSlot(index);
+        this.updateStorage();
+    }
+
+    private void updateStorage()
+    {
+        if (this.mode != StorageMode.AUTO)
+            return;
+
+        int count = this.inventory.count();
+        if (this.inventory instanceof SparseStorage)
+        {
+            int size = this.getSizeInventory();
+            if (count >= MIN_DENSE_SLOTS && count * 2 >= size)
+                this.setStorage(new DenseStorage(size));
+        }
+        else if (count * 8 < this.getSizeInventory())
+        {
+            this.setStorage(new SparseStorage());
+        }
+    }
+
+    private void setStorage(Storage storage)
+    {
+        for (int i = this.occupied.nextSetBit(0); i >= 0; i = this.occupied.nextSetBit(i + 1))
+            storage.put(i, this.inventory.get(i));
+        this.inventory = storage;
+    }
+
+    private void beforeSlotChange(int index)
+    {
+        if (this.snapshots != null)
+            for (Snapshot snapshot : this.snapshots)
+                snapshot.record(index);
+    }
+
+    private void markSlotChanged(int index)
+    {
+        this.modCount++;
+        this.changedSlots.set(index);
+        this.unsavedSlots.set(index);
+        this.updateKnownSlot(index);
+        this.updateFill(index);
+    }
+
+    private void updateKnownSlot(int index)
+    {
+        ItemStack stack = this.inventory.get(index);
+        if (stack.isEmpty())
+        {
+            this.knownSlots.remove(index);
+            return;
+        }
+
+        SlotState state = this.knownSlots.get(index);
+        if (state == null)
+        {
+            this.knownSlots.put(index, new SlotState(stack));
+        }
+        else
+        {
+            state.set(stack);
+        }
+    }
+
+    /**
+     * Compares all occupied slots to their contents when they were last changed through this inventory, and marks the slots that were modified directly as changed. Slots that were emptied are freed.
+     */
+    private void verifySlots()
+    {
+        if (!this.unverified)
+            return;
+        this.unverified = false;
+
+        for (int i = this.occupied.nextSetBit(0); i >= 0; i = this.occupied.nextSetBit(i + 1))
+        {
+            ItemStack stack = this.inventory.get(i);
+            if (stack.isEmpty())
+            {
+                this.putStack(i, ItemStack.EMPTY);
+                continue;
+            }
+
+            SlotState state = this.knownSlots.get(i);
+            if (state == null || !state.matches(stack))
+            {
+                this.markSlotChanged(i);
+                this.updatePartialSlot(i);
+            }
+        }
+    }
+
+    private long getSlotFill(int index)
+    {
+        ItemStack stack = this.inventory.get(index);
+        if (stack.isEmpty())
+            return 0;
+        return Math.min(stack.getCount() * FILL_SCALE / Math.max(1, Math.min(this.getSlotStackLimit(index), stack.getMaxStackSize())), FILL_SCALE);
+    }
+
+    private void updateFill(int index)
+    {
+        if (index >= this.fillSize)
+            return;
+        long slotFill = this.getSlotFill(index);
+        this.fill += slotFill - (slotFill > 0 ? this.slotFill.put(index, slotFill) : this.slotFill.remove(index));
+    }
+
+    private void calculateFill()
+    {
+        this.slotFill.clear();
+        this.fill = 0;
+        this.fillSize = this.getSizeInventory();
+        for (int i = this.occupied.nextSetBit(0); i >= 0 && i < this.fillSize; i = this.occupied.nextSetBit(i + 1))
+            this.updateFill(i);
+    }
+
+    private void invalidateSavedItems()
+    {
+        this.savedItems = null;
+        this.savedItemsShared = false;
+        this.savedPositions.clear();
+        this.savedIndices.clear();
+        this.unsavedSlots.clear();
+    }
+
+    private CompoundNBT writeSlot(int index, ItemStack stack, int size)
+    {
+        CompoundNBT slotNbt = new CompoundNBT();
+        if (size > 256)
+        {
+            slotNbt.putInt("Slot", index);
+        }
+        else
+        {
+            slotNbt.putByte("Slot", (byte) index);
+        }
+        stack.write(slotNbt);
+        return slotNbt;
+    }
+
+    private void removeSavedSlot(int index, int position)
+    {
+        int last = this.savedItems.size() - 1;
+        if (position != last)
+        {
+            int movedIndex = this.savedIndices.getInt(last);
+            this.savedItems.set(position, this.savedItems.get(last));
+            this.savedIndices.set(position, movedIndex);
+            this.savedPositions.put(movedIndex, position);
+        }
+        this.savedItems.remove(last);
+        this.savedIndices.removeInt(last);
+        this.savedPositions.remove(index);
+    }
+
+    /**
+     * Fetches the saved list of items, only writing the slots that changed since it was last fetched. Each slot has its own tag in the list which is replaced when that slot changes.
+     * Once the list has been handed out by {@link #write(CompoundNBT)} it is never modified again, instead the references are copied into a new list the next time a slot changes.
+     */
+    private ListNBT getSavedItems()
+    {
+        this.verifySlots();
+        int size = this.getSizeInventory();
+        if (this.savedItems == null || this.savedSize != size)
+        {
+            this.invalidateSavedItems();
+            this.savedItems = new ListNBT();
+            this.savedSize = size;
+            for (int i = this.occupied.nextSetBit(0); i >= 0 && i < size; i = this.occupied.nextSetBit(i + 1))
+            {
+                this.savedPositions.put(i, this.savedItems.size());
+                this.savedIndices.add(i);
+                this.savedItems.add(this.writeSlot(i, this.inventory.get(i), size));
+            }
+            return this.savedItems;
+        }
+
+        if (this.unsavedSlots.isEmpty())
+            return this.savedItems;
+
+        if (this.savedItemsShared)
+        {
+            ListNBT list = new ListNBT();
+            list.addAll(this.savedItems);
+            this.savedItems = list;
+            this.savedItemsShared = false;
+        }
+
+        for (int i = this.unsavedSlots.nextSetBit(0); i >= 0 && i < size; i = this.unsavedSlots.nextSetBit(i + 1))
+        {
+            ItemStack stack = this.inventory.get(i);
+            int position = this.savedPositions.get(i);
+            if (stack.isEmpty())
+            {
+                if (position != -1)
+                    this.removeSavedSlot(i, position);
+                continue;
+            }
+
+            CompoundNBT slotNbt = this.writeSlot(i, stack, size);
+            if (position != -1)
+            {
+                this.savedItems.set(position, slotNbt);
+            }
+            else
+            {
+                this.savedPositions.put(i, this.savedItems.size());
+                this.savedIndices.add(i);
+                this.savedItems.add(slotNbt);
+            }
+        }
+        this.unsavedSlots.clear();
+        return this.savedItems;
+    }
+
+    private void updatePartialSlot(int index)
+    {
+        ItemKey oldKey = this.partialSlotKeys.remove(index);
+        if (oldKey != null)
+        {
+            IntSortedSet slots = this.partialSlots.get(oldKey);
+            slots.remove(index);
+            if (slots.isEmpty())
+                this.partialSlots.remove(oldKey);
+        }
+
+        ItemStack stack = this.inventory.get(index);
+        if (stack.isEmpty() || stack.getCount() >= Math.min(this.getSlotStackLimit(index), stack.getMaxStackSize()))
+            return;
+
+        ItemKey lookupKey = new ItemKey(stack.getItem(), stack.getTag());
+        IntSortedSet slots = this.partialSlots.get(lookupKey);
+        if (slots == null)
+        {
+            ItemKey key = lookupKey.copy();
+            slots = new IntRBTreeSet();
+            this.partialSlots.put(key, slots);
+            this.partialSlotKeys.put(index, key);
+        }
+        else
+        {
+            this.partialSlotKeys.put(index, this.getKey(slots));
+        }
+        slots.add(index);
+    }
+
+    private ItemKey getKey(IntSortedSet slots)
+    {
+        return this.partialSlotKeys.get(slots.firstInt());
     }
 
     private int getNextEmptySlot(ItemStack stack, int loopStart, int loopEnd)
     {
-        for (int i = loopStart; i < loopEnd; i++)
-            if (this.isItemValidForSlot(i, stack) && this.inventory.getOrDefault(i, ItemStack.EMPTY).isEmpty())
+        for (int i = this.occupied.nextClearBit(loopStart); i < loopEnd; i = this.occupied.nextClearBit(i + 1))
+            if (this.isItemValidForSlot(i, stack))
                 return i;
         return -1;
     }
@@ -72,6 +396,105 @@ public abstract class DynamicInventory implements IInventory
             this.listeners = null;
     }
 
+    /**
+     * Adds the specified listener that is told which slots changed.
+     *
+     * @param listener The new listener to add
+     * @since 5.1.0
+     */
+    public void addSlotListener(IDynamicInventoryListener listener)
+    {
+        if (this.slotListeners == null)
+            this.slotListeners = new HashSet<>();
+        this.slotListeners.add(listener);
+    }
+
+    /**
+     * Removes the specified slot listener if already added.
+     *
+     * @param listener The listener to remove
+     * @since 5.1.0
+     */
+    public void removeSlotListener(IDynamicInventoryListener listener)
+    {
+        if (this.slotListeners == null)
+            return;
+        this.slotListeners.remove(listener);
+        if (this.slotListeners.isEmpty())
+            this.slotListeners = null;
+    }
+
+    /**
+     * Starts remembering the contents of slots before they are changed. The snapshot must be closed once it is no longer needed.
+     *
+     * @return A new snapshot of the current contents
+     * @since 5.1.0
+     */
+    public Snapshot snapshot()
+    {
+        if (this.snapshots == null)
+            this.snapshots = new ArrayList<>(1);
+        Snapshot snapshot = new Snapshot();
+        this.snapshots.add(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Starts a new set of changes that are only applied to this inventory when committed.
+     *
+     * @return A new transaction
+     * @since 5.1.0
+     */
+    public Transaction beginTransaction()
+    {
+        return new Transaction();
+    }
+
+    /**
+     * Finds the first slot that contains a stack at or after the specified index. Can be used to skip over empty slots when iterating.
+     *
+     * @param index The index to start looking from
+     * @return The index of the next occupied slot or -1 if there are no occupied slots left
+     * @since 5.1.0
+     */
+    public int getNextOccupiedSlot(int index)
+    {
+        int slot = this.occupied.nextSetBit(Math.max(0, index));
+        return slot < this.getSizeInventory() ? slot : -1;
+    }
+
+    /**
+     * Adds the specified number of items to the stack in a slot without replacing the stack.
+     *
+     * @param index  The index of the slot
+     * @param amount The number of items to add
+     */
+    void growSlot(int index, int amount)
+    {
+        ItemStack stackInSlot = this.inventory.get(index);
+        if (stackInSlot.isEmpty() || amount == 0)
+            return;
+        this.beforeSlotChange(index);
+        stackInSlot.grow(amount);
+        this.updatePartialSlot(index);
+        this.markSlotChanged(index);
+        this.markSlotsDirty();
+    }
+
+    /**
+     * Finds the first free slot at or after the specified index.
+     *
+     * @param index The index to start looking from
+     * @return The index of the next free slot or -1 if there are no free slots left
+     * @since 5.1.0
+     */
+    public int getNextFreeSlot(int index)
+    {
+        this.verifySlots();
+        int slot = this.occupied.nextClearBit(Math.max(0, index));
+        return slot < this.getSizeInventory() ? slot : -1;
+    }
+
     /**
      * Adds the specified item to the inventory.
      *
@@ -93,78 +516,154 @@ public abstract class DynamicInventory implements IInventory
      */
     public ItemStack addItem(ItemStack stack, int startIndex, int endIndex)
     {
+        ItemStack remaining = this.insertItem(stack, startIndex, endIndex);
+        if (!ItemStack.areItemStacksEqual(stack, remaining))
+            this.markSlotsDirty();
+        return remaining;
+    }
+
+    /**
+     * Adds all of the specified items to the inventory. Listeners are only notified once after all items have been added.
+     *
+     * @param stacks The stacks to add
+     * @return The remaining items that could not be inserted into the inventory. Empty if all items were inserted
+     * @since 5.1.0
+     */
+    public List<ItemStack> addItems(Collection<ItemStack> stacks)
+    {
+        int size = this.getSizeInventory();
+        boolean changed = false;
+        List<ItemStack> remaining = new ArrayList<>();
+        for (ItemStack stack : stacks)
+        {
+            if (stack.isEmpty())
+                continue;
+            ItemStack remainder = this.insertItem(stack, 0, size);
+            if (remainder.getCount() != stack.getCount())
+                changed = true;
+            if (!remainder.isEmpty())
+                remaining.add(remainder);
+        }
+        if (changed)
+            this.markSlotsDirty();
+        return remaining;
+    }
+
+    /**
+     * Removes items matching the specified filter from the inventory, starting at the first slot. Listeners are only notified once after all items have been removed.
+     *
+     * @param filter The filter for stacks to remove
+     * @param max    The maximum number of items to remove
+     * @return The stacks removed from the inventory
+     * @since 5.1.0
+     */
+    public List<ItemStack> extractMatching(Predicate<ItemStack> filter, int max)
+    {
+        int size = this.getSizeInventory();
+        int remaining = max;
+        List<ItemStack> extracted = new ArrayList<>();
+        for (int i = this.occupied.nextSetBit(0); i >= 0 && i < size && remaining > 0; i = this.occupied.nextSetBit(i + 1))
+        {
+            ItemStack stackInSlot = this.inventory.get(i);
+            if (stackInSlot.isEmpty() || !filter.test(stackInSlot))
+                continue;
+
+            this.beforeSlotChange(i);
+            ItemStack stack = stackInSlot.split(remaining);
+            remaining -= stack.getCount();
+            extracted.add(stack);
+            this.putStack(i, stackInSlot);
+        }
+        if (!extracted.isEmpty())
+            this.markSlotsDirty();
+        return extracted;
+    }
+
+    private ItemStack insertItem(ItemStack stack, int startIndex, int endIndex)
+    {
+        this.verifySlots();
         int loopStart = Math.max(0, startIndex);
         int loopEnd = Math.min(this.getSizeInventory(), endIndex);
         ItemStack copy = stack.copy();
-        for (int i = loopStart; i < loopEnd; i++)
+        IntSortedSet slots = copy.isEmpty() ? null : this.partialSlots.get(new ItemKey(copy.getItem(), copy.getTag()));
+        if (slots != null)
         {
-            ItemStack stackInSlot = this.getStackInSlot(i);
-            if (this.isItemValidForSlot(i, stack) && ItemStack.areItemsEqual(stackInSlot, copy) && ItemStack.areItemStackTagsEqual(stackInSlot, copy))
+            for (int i : slots.subSet(loopStart, loopEnd).toIntArray())
             {
-                this.mergeStacks(copy, stackInSlot, i);
-                if (copy.isEmpty())
+                ItemStack stackInSlot = this.getStackInSlot(i);
+                if (this.isItemValidForSlot(i, stack) && ItemStack.areItemsEqual(stackInSlot, copy) && ItemStack.areItemStackTagsEqual(stackInSlot, copy))
                 {
-                    this.markDirty();
-                    return ItemStack.EMPTY;
+                    this.beforeSlotChange(i);
+                    this.mergeStacks(copy, stackInSlot, i);
+                    this.updatePartialSlot(i);
+                    this.markSlotChanged(i);
+                    if (copy.isEmpty())
+                        return ItemStack.EMPTY;
                 }
             }
         }
 
-        int index;
-        while (!copy.isEmpty() && (index = this.getNextEmptySlot(copy, loopStart, loopEnd)) >= 0)
+        int index = loopStart;
+        while (!copy.isEmpty() && (index = this.getNextEmptySlot(copy, index, loopEnd)) >= 0)
         {
             if (copy.getCount() > this.getSlotStackLimit(index))
             {
-                this.inventory.put(index, copy.split(this.getSlotStackLimit(index)));
+                this.putStack(index, copy.split(this.getSlotStackLimit(index)));
             }
             else
             {
-                this.inventory.put(index, copy.copy());
+                this.putStack(index, copy.copy());
                 copy = ItemStack.EMPTY;
             }
         }
 
-        if (!ItemStack.areItemStacksEqual(stack, copy))
-            this.markDirty();
-
         return copy;
     }
 
     @Override
     public boolean isEmpty()
     {
-        return this.inventory.isEmpty();
+        this.verifySlots();
+        return this.inventory.count() == 0;
     }
 
     @Override
     public ItemStack getStackInSlot(int index)
     {
-        return this.inventory.getOrDefault(index, ItemStack.EMPTY);
+        return this.inventory.get(index);
     }
 
     @Override
     public ItemStack decrStackSize(int index, int count)
     {
-        if (this.inventory.getOrDefault(index, ItemStack.EMPTY).isEmpty() || count <= 0)
+        if (this.inventory.get(index).isEmpty() || count <= 0)
             return ItemStack.EMPTY;
-        ItemStack stack = this.inventory.getOrDefault(index, ItemStack.EMPTY).split(count);
-        this.markDirty();
+        ItemStack stackInSlot = this.inventory.get(index);
+        this.beforeSlotChange(index);
+        ItemStack stack = stackInSlot.split(count);
+        this.putStack(index, stackInSlot);
+        this.markSlotsDirty();
         return stack;
     }
 
     @Override
     public ItemStack removeStackFromSlot(int index)
     {
-        if (this.inventory.getOrDefault(index, ItemStack.EMPTY).isEmpty())
+        if (this.inventory.get(index).isEmpty())
             return ItemStack.EMPTY;
+        this.beforeSlotChange(index);
         ItemStack stack = this.inventory.remove(index);
+        this.occupied.clear(index);
+        this.markSlotChanged(index);
+        this.updatePartialSlot(index);
+        this.updateStorage();
         if (stack.isEmpty())
         {
             return ItemStack.EMPTY;
         }
         else
         {
-            this.markDirty();
+            this.markSlotsDirty();
             return stack;
         }
     }
@@ -174,19 +673,87 @@ public abstract class DynamicInventory implements IInventory
     {
         if (index < 0 || index >= this.getSizeInventory())
             return;
-        this.inventory.put(index, stack);
         if (!stack.isEmpty() && stack.getCount() > this.getSlotStackLimit(index))
             stack.setCount(this.getSlotStackLimit(index));
+        this.putStack(index, stack);
+        this.markSlotsDirty();
+    }
+
+    private void markSlotsDirty()
+    {
+        this.changedSlotsKnown = true;
         this.markDirty();
     }
 
+    /**
+     * Marks this inventory as changed. If called from outside this inventory, stacks may have been modified directly, so the next time changes are needed every occupied slot is compared to
+     * the item, count and tag it had when last changed through this inventory. This does not copy or write any stacks, and only the slots that actually differ are treated as changed.
+     * Listeners are notified immediately unless this inventory is deferred, in which case they are notified by {@link #flush()}.
+     */
     @Override
     public void markDirty()
     {
-        if (this.listeners == null)
+        if (!this.changedSlotsKnown)
+        {
+            this.unverified = true;
+            this.modCount++;
+        }
+        this.changedSlotsKnown = false;
+        this.changed = true;
+        if (!this.deferred)
+            this.flush();
+    }
+
+    /**
+     * Notifies all listeners of the changes made since the last flush. Deferred inventories should call this once per tick.
+     *
+     * @since 5.1.0
+     */
+    public void flush()
+    {
+        if (!this.changed)
             return;
-        for (IInventoryChangedListener listener : this.listeners)
-            listener.onInventoryChanged(this);
+
+        if (this.slotListeners != null)
+            this.verifySlots();
+
+        // The two sets are swapped instead of copied. The spare is taken while listeners run in case they change the inventory and flush again
+        BitSet slots = this.changedSlots;
+        this.changedSlots = this.spareChangedSlots != null ? this.spareChangedSlots : new BitSet();
+        this.spareChangedSlots = null;
+        this.changed = false;
+
+        if (this.listeners != null)
+            for (IInventoryChangedListener listener : this.listeners.toArray(new IInventoryChangedListener[0]))
+                listener.onInventoryChanged(this);
+        if (this.slotListeners != null)
+            for (IDynamicInventoryListener listener : this.slotListeners.toArray(new IDynamicInventoryListener[0]))
+                listener.onSlotsChanged(this, slots);
+
+        slots.clear();
+        this.spareChangedSlots = slots;
+    }
+
+    /**
+     * Sets whether or not listeners should only be notified when {@link #flush()} is called. This allows many changes in a single tick to be sent as one notification.
+     *
+     * @param deferred Whether or not to defer notifications
+     * @since 5.1.0
+     */
+    public void setDeferred(boolean deferred)
+    {
+        this.deferred = deferred;
+        if (!deferred)
+            this.flush();
+    }
+
+    /**
+     * @return Whether or not listeners are only notified when {@link #flush()} is called
+     * @since 5.1.0
+     */
+    public boolean isDeferred()
+    {
+        return deferred;
     }
 
     /**
@@ -203,29 +770,58 @@ public abstract class DynamicInventory implements IInventory
     @Override
     public void clear()
     {
-        this.inventory.clear();
+        for (int i = this.occupied.nextSetBit(0); i >= 0; i = this.occupied.nextSetBit(i + 1))
+            this.beforeSlotChange(i);
+        this.modCount++;
+        this.inventory = this.mode == StorageMode.DENSE ? new DenseStorage(0) : new SparseStorage();
+        this.occupied.clear();
+        this.partialSlots.clear();
+        this.partialSlotKeys.clear();
+        this.invalidateSavedItems();
+        this.knownSlots.clear();
+        this.unverified = false;
+        this.slotFill.clear();
+        this.fill = 0;
+    }
+
+    /**
+     * Calculates the comparator level from how full each slot is compared to {@link #getSlotStackLimit(int)}. Slots are only looked at again when they change, so this is very cheap to call often.
+     *
+     * @return The redstone level from 0 to 15 based on how full this inventory is
+     * @since 5.1.0
+     */
+    @Override
+    public int getComparatorLevel()
+    {
+        this.verifySlots();
+        int size = this.getSizeInventory();
+        if (this.fillSize != size)
+            this.calculateFill();
+        if (size <= 0 || this.slotFill.isEmpty())
+            return 0;
+        return (int) (this.fill * 14 / ((long) size * FILL_SCALE)) + 1;
     }
 
     /**
-     * Writes the contents of this inventory to NBT.
+     * @return The way stacks are currently stored. Either {@link StorageMode#SPARSE} or {@link StorageMode#DENSE}
+     * @since 5.1.0
+     */
+    public StorageMode getStorageMode()
+    {
+        return this.inventory instanceof DenseStorage ? StorageMode.DENSE : StorageMode.SPARSE;
+    }
+
+    /**
+     * Writes the contents of this inventory to NBT. Only slots that changed since the last write are serialized again, so stacks must not be modified directly without calling {@link #markDirty()}.
+     * The tag receives the cached list, which this inventory never modifies afterwards, so it is safe to keep or save on another thread. The list and the slot tags inside it must not be modified.
+     * Slots are not written in order. Inventories with more than 256 slots store slot indices as integers instead of bytes.
      *
      * @param nbt The tag to write into
      */
     public void write(CompoundNBT nbt)
     {
-        ListNBT list = new ListNBT();
-        for (int i = 0; i < this.getSizeInventory(); ++i)
-        {
-            ItemStack stack = this.inventory.getOrDefault(i, ItemStack.EMPTY);
-            if (!stack.isEmpty())
-            {
-                CompoundNBT slotNbt = new CompoundNBT();
-                slotNbt.putByte("Slot", (byte) i);
-                stack.write(slotNbt);
-                list.add(slotNbt);
-            }
-        }
-        nbt.put("Items", list);
+        nbt.put("Items", this.getSavedItems());
+        this.savedItemsShared = true;
     }
 
     /**
@@ -241,11 +837,441 @@ public abstract class DynamicInventory implements IInventory
         for (int i = 0; i < list.size(); ++i)
         {
             CompoundNBT slotNbt = list.getCompound(i);
-            int index = slotNbt.getByte("Slot") & 255;
-            if (index < this.getSizeInventory())
+            int index = slotNbt.contains("Slot", Constants.NBT.TAG_INT) ? slotNbt.getInt("Slot") : slotNbt.getByte("Slot") & 255;
+            if (index >= 0 && index < this.getSizeInventory())
             {
-                this.inventory.put(index, ItemStack.read(slotNbt));
+                this.putStack(index, ItemStack.read(slotNbt));
             }
         }
     }
+
+    /**
+     * <p>The contents of a {@link DynamicInventory} at the time the snapshot was made. Only slots changed since then are stored.
+     * Stacks that are modified directly instead of through the inventory are not remembered.</p>
+     *
+     * @author Ocelot
+     * @since 5.1.0
+     */
+    public class Snapshot implements AutoCloseable
+    {
+        private final Int2ObjectOpenHashMap<ItemStack> originals;
+        private boolean closed;
+
+        private Snapshot()
+        {
+            this.originals = new Int2ObjectOpenHashMap<>();
+        }
+
+        private void record(int index)
+        {
+            if (!this.originals.containsKey(index))
+                this.originals.put(index, DynamicInventory.this.inventory.get(index).copy());
+        }
+
+        /**
+         * Fetches the stack that was in the specified slot when this snapshot was made.
+         *
+         * @param index The index of the slot
+         * @return A copy of the stack in the slot
+         */
+        public ItemStack getStackInSlot(int index)
+        {
+            ItemStack stack = this.originals.get(index);
+            return stack != null ? stack.copy() : DynamicInventory.this.inventory.get(index).copy();
+        }
+
+        /**
+         * Puts all slots changed since this snapshot was made back to how they were and closes this snapshot.
+         */
+        public void restore()
+        {
+            if (this.closed)
+                throw new IllegalStateException("Snapshot has already been closed");
+            this.close();
+            if (this.originals.isEmpty())
+                return;
+            for (Int2ObjectMap.Entry<ItemStack> entry : this.originals.int2ObjectEntrySet())
+                DynamicInventory.this.putStack(entry.getIntKey(), entry.getValue());
+            DynamicInventory.this.markSlotsDirty();
+        }
+
+        /**
+         * @return The number of slots that have changed since this snapshot was made
+         */
+        public int getChangedSlots()
+        {
+            return this.originals.size();
+        }
+
+        /**
+         * Stops remembering changes to the inventory.
+         */
+        @Override
+        public void close()
+        {
+            if (this.closed)
+                return;
+            this.closed = true;
+            if (DynamicInventory.this.snapshots != null)
+            {
+                DynamicInventory.this.snapshots.remove(this);
+                if (DynamicInventory.this.snapshots.isEmpty())
+                    DynamicInventory.this.snapshots = null;
+            }
+        }
+    }
+
+    /**
+     * <p>A set of changes to a {@link DynamicInventory} that are made to copies of the affected slots and only applied when committed.
+     * Committing fails if the inventory was changed after the transaction started.</p>
+     *
+     * @author Ocelot
+     * @since 5.1.0
+     */
+    public class Transaction
+    {
+        private final Int2ObjectOpenHashMap<ItemStack> changes;
+        private final int startModCount;
+        private boolean closed;
+
+        private Transaction()
+        {
+            this.changes = new Int2ObjectOpenHashMap<>();
+            this.startModCount = DynamicInventory.this.modCount;
+        }
+
+        private ItemStack getMutableStack(int index)
+        {
+            ItemStack stack = this.changes.get(index);
+            if (stack == null)
+            {
+                stack = DynamicInventory.this.inventory.get(index).copy();
+                this.changes.put(index, stack);
+            }
+            return stack;
+        }
+
+        private void checkOpen()
+        {
+            if (this.closed)
+                throw new IllegalStateException("Transaction has already been closed");
+        }
+
+        private void merge(int index, ItemStack stack, ItemStack original)
+        {
+            ItemStack stackInSlot = this.getStackInSlot(index);
+            if (stackInSlot.isEmpty() || !DynamicInventory.this.isItemValidForSlot(index, original) || !ItemStack.areItemsEqual(stackInSlot, stack) || !ItemStack.areItemStackTagsEqual(stackInSlot, stack))
+                return;
+            int maxStackSize = Math.min(DynamicInventory.this.getSlotStackLimit(index), stackInSlot.getMaxStackSize());
+            int addAmount = Math.min(stack.getCount(), maxStackSize - stackInSlot.getCount());
+            if (addAmount > 0)
+            {
+                this.getMutableStack(index).grow(addAmount);
+                stack.shrink(addAmount);
+            }
+        }
+
+        private void fill(int index, ItemStack stack, ItemStack original)
+        {
+            if (!DynamicInventory.this.isItemValidForSlot(index, original))
+                return;
+            int limit = DynamicInventory.this.getSlotStackLimit(index);
+            this.changes.put(index, stack.split(limit));
+        }
+
+        /**
+         * Fetches the stack in the specified slot as it would be after this transaction is committed. The returned stack must not be modified.
+         *
+         * @param index The index of the slot
+         * @return The stack in the slot
+         */
+        public ItemStack getStackInSlot(int index)
+        {
+            ItemStack stack = this.changes.get(index);
+            return stack != null ? stack : DynamicInventory.this.inventory.get(index);
+        }
+
+        /**
+         * Sets the stack in the specified slot.
+         *
+         * @param index The index of the slot
+         * @param stack The new stack
+         */
+        public void setStackInSlot(int index, ItemStack stack)
+        {
+            this.checkOpen();
+            if (index < 0 || index >= DynamicInventory.this.getSizeInventory())
+                return;
+            this.changes.put(index, stack.copy());
+        }
+
+        /**
+         * Adds the specified item.
+         *
+         * @param stack The stack to add
+         * @return The remaining items that could not be added or {@link ItemStack#EMPTY} if all items were added
+         */
+        public ItemStack addItem(ItemStack stack)
+        {
+            this.checkOpen();
+            int size = DynamicInventory.this.getSizeInventory();
+            ItemStack copy = stack.copy();
+            if (copy.isEmpty())
+                return ItemStack.EMPTY;
+
+            for (int index : this.changes.keySet().toIntArray())
+                if (index < size && !copy.isEmpty())
+                    this.merge(index, copy, stack);
+
+            IntSortedSet slots = DynamicInventory.this.partialSlots.get(new ItemKey(copy.getItem(), copy.getTag()));
+            if (slots != null)
+                for (int index : slots.subSet(0, size).toIntArray())
+                    if (!copy.isEmpty() && !this.changes.containsKey(index))
+                        this.merge(index, copy, stack);
+
+            for (int index : this.changes.keySet().toIntArray())
+                if (index < size && !copy.isEmpty() && this.changes.get(index).isEmpty())
+                    this.fill(index, copy, stack);
+
+            BitSet occupied = DynamicInventory.this.occupied;
+            for (int index = occupied.nextClearBit(0); index < size && !copy.isEmpty(); index = occupied.nextClearBit(index + 1))
+                if (!this.changes.containsKey(index))
+                    this.fill(index, copy, stack);
+
+            return copy;
+        }
+
+        /**
+         * Removes up to the specified number of items from a slot.
+         *
+         * @param index  The index of the slot
+         * @param amount The maximum number of items to remove
+         * @return The items removed
+         */
+        public ItemStack extractItem(int index, int amount)
+        {
+            this.checkOpen();
+            if (amount <= 0 || this.getStackInSlot(index).isEmpty())
+                return ItemStack.EMPTY;
+            return this.getMutableStack(index).split(amount);
+        }
+
+        /**
+         * Applies all changes to the inventory and notifies listeners once.
+         *
+         * @return Whether or not the changes were applied. Changes are not applied if the inventory was changed after this transaction started
+         */
+        public boolean commit()
+        {
+            this.checkOpen();
+            this.closed = true;
+            if (DynamicInventory.this.modCount != this.startModCount)
+                return false;
+            if (this.changes.isEmpty())
+                return true;
+
+            for (Int2ObjectMap.Entry<ItemStack> entry : this.changes.int2ObjectEntrySet())
+            {
+                int index = entry.getIntKey();
+                ItemStack stack = entry.getValue();
+                if (!stack.isEmpty() && stack.getCount() > DynamicInventory.this.getSlotStackLimit(index))
+                    stack.setCount(DynamicInventory.this.getSlotStackLimit(index));
+                DynamicInventory.this.putStack(index, stack);
+            }
+            DynamicInventory.this.markSlotsDirty();
+            return true;
+        }
+
+        /**
+         * Throws away all changes.
+         */
+        public void discard()
+        {
+            this.closed = true;
+            this.changes.clear();
+        }
+
+        /**
+         * @return The number of slots changed by this transaction
+         */
+        public int getChangedSlots()
+        {
+            return this.changes.size();
+        }
+    }
+
+    /**
+     * <p>The ways a {@link DynamicInventory} can store stacks.</p>
+     *
+     * @author Ocelot
+     * @since 5.1.0
+     */
+    public enum StorageMode
+    {
+        /**
+         * Switches to {@link #DENSE} once at least half of the slots are used and back to {@link #SPARSE} once fewer than an eighth of the slots are used.
+         */
+        AUTO,
+        /**
+         * Stores stacks in a hash map, which uses little memory when few slots are used.
+         */
+        SPARSE,
+        /**
+         * Stores stacks in an array, which is faster when most slots are used.
+         */
+        DENSE
+    }
+
+    private interface Storage
+    {
+        ItemStack get(int index);
+
+        void put(int index, ItemStack stack);
+
+        ItemStack remove(int index);
+
+        int count();
+    }
+
+    private static class SparseStorage implements Storage
+    {
+        private final Int2ObjectOpenHashMap<ItemStack> stacks;
+
+        private SparseStorage()
+        {
+            this.stacks = new Int2ObjectOpenHashMap<>();
+            this.stacks.defaultReturnValue(ItemStack.EMPTY);
+        }
+
+        @Override
+        public ItemStack get(int index)
+        {
+            return this.stacks.get(index);
+        }
+
+        @Override
+        public void put(int index, ItemStack stack)
+        {
+            this.stacks.put(index, stack);
+        }
+
+        @Override
+        public ItemStack remove(int index)
+        {
+            return this.stacks.remove(index);
+        }
+
+        @Override
+        public int count()
+        {
+            return this.stacks.size();
+        }
+    }
+
+    private static class DenseStorage implements Storage
+    {
+        private ItemStack[] stacks;
+        private int count;
+
+        private DenseStorage(int capacity)
+        {
+            this.stacks = new ItemStack[capacity];
+            this.count = 0;
+        }
+
+        @Override
+        public ItemStack get(int index)
+        {
+            ItemStack stack = index >= 0 && index < this.stacks.length ? this.stacks[index] : null;
+            return stack != null ? stack : ItemStack.EMPTY;
+        }
+
+        @Override
+        public void put(int index, ItemStack stack)
+        {
+            if (index >= this.stacks.length)
+                this.stacks = Arrays.copyOf(this.stacks, Math.max(index + 1, this.stacks.length * 2));
+            if (this.stacks[index] == null)
+                this.count++;
+            this.stacks[index] = stack;
+        }
+
+        @Override
+        public ItemStack remove(int index)
+        {
+            ItemStack stack = index >= 0 && index < this.stacks.length ? this.stacks[index] : null;
+            if (stack == null)
+                return ItemStack.EMPTY;
+            this.stacks[index] = null;
+            this.count--;
+            return stack;
+        }
+
+        @Override
+        public int count()
+        {
+            return count;
+        }
+    }
+
+    private static class ItemKey
+    {
+        private final Item item;
+        private final CompoundNBT tag;
+        private final int hash;
+
+        private ItemKey(Item item, @Nullable CompoundNBT tag)
+        {
+            this.item = item;
+            this.tag = tag;
+            this.hash = 31 * item.hashCode() + Objects.hashCode(tag);
+        }
+
+        private ItemKey copy()
+        {
+            return this.tag == null ? this : new ItemKey(this.item, this.tag.copy());
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+                return true;
+            if (!(o instanceof ItemKey))
+                return false;
+            ItemKey itemKey = (ItemKey) o;
+            return this.hash == itemKey.hash && this.item == itemKey.item && Objects.equals(this.tag, itemKey.tag);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+    }
+
+    private static class SlotState
+    {
+        private Item item;
+        private int count;
+        private CompoundNBT tag;
+
+        private SlotState(ItemStack stack)
+        {
+            this.set(stack);
+        }
+
+        private void set(ItemStack stack)
+        {
+            this.item = stack.getItem();
+            this.count = stack.getCount();
+            if (!Objects.equals(this.tag, stack.getTag()))
+                this.tag = stack.getTag() != null ? stack.getTag().copy() : null;
+        }
+
+        private boolean matches(ItemStack stack)
+        {
+            return this.item == stack.getItem() && this.count == stack.getCount() && Objects.equals(this.tag, stack.getTag());
+        }
+    }
 }
@@ -0,0 +1,125 @@
+package io.github.ocelot.sonar.common.util;
+
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.items.IItemHandlerModifiable;
+import net.minecraftforge.items.ItemHandlerHelper;
+
+/**
+ * <p>An {@link IItemHandlerModifiable} that works directly on a {@link DynamicInventory} instead of going through {@link net.minecraftforge.items.wrapper.InvWrapper}.</p>
+ * <p>Inserting into an occupied slot grows the existing stack in place and simulating never modifies or copies the stored stack unless a result has to be returned.
+ * Pipes can use {@link #getNextOccupiedSlot(int)} to skip over empty slots instead of checking every slot.</p>
+ * <p>The comparator level cached by the inventory is exposed through {@link IComparatorLevelProvider}, so blocks using this handler as a capability do not check every slot for comparators.</p>
+ *
+ * @author Ocelot
+ * @since 5.1.0
+ */
+public class DynamicInventoryItemHandler implements IItemHandlerModifiable, IComparatorLevelProvider
+{
+    private final DynamicInventory inventory;
+
+    public DynamicInventoryItemHandler(DynamicInventory inventory)
+    {
+        this.inventory = inventory;
+    }
+
+    @Override
+    public int getSlots()
+    {
+        return this.inventory.getSizeInventory();
+    }
+
+    @Override
+    public ItemStack getStackInSlot(int slot)
+    {
+        return this.inventory.getStackInSlot(slot);
+    }
+
+    @Override
+    public ItemStack insertItem(int slot, ItemStack stack, boolean simulate)
+    {
+        if (stack.isEmpty() || slot < 0 || slot >= this.getSlots() || !this.inventory.isItemValidForSlot(slot, stack))
+            return stack;
+
+        ItemStack stackInSlot = this.inventory.getStackInSlot(slot);
+        if (!stackInSlot.isEmpty() && !ItemHandlerHelper.canItemStacksStack(stack, stackInSlot))
+            return stack;
+
+        int limit = Math.min(this.getSlotLimit(slot), stack.getMaxStackSize());
+        int insertAmount = Math.min(stack.getCount(), limit - stackInSlot.getCount());
+        if (insertAmount <= 0)
+            return stack;
+
+        if (!simulate)
+        {
+            if (stackInSlot.isEmpty())
+            {
+                this.inventory.setInventorySlotContents(slot, ItemHandlerHelper.copyStackWithSize(stack, insertAmount));
+            }
+            else
+            {
+                this.inventory.growSlot(slot, insertAmount);
+            }
+        }
+
+        return insertAmount == stack.getCount() ? ItemStack.EMPTY : ItemHandlerHelper.copyStackWithSize(stack, stack.getCount() - insertAmount);
+    }
+
+    @Override
+    public ItemStack extractItem(int slot, int amount, boolean simulate)
+    {
+        if (amount <= 0 || slot < 0 || slot >= this.getSlots())
+            return ItemStack.EMPTY;
+
+        ItemStack stackInSlot = this.inventory.getStackInSlot(slot);
+        if (stackInSlot.isEmpty())
+            return ItemStack.EMPTY;
+
+        int extractAmount = Math.min(amount, Math.min(stackInSlot.getCount(), stackInSlot.getMaxStackSize()));
+        if (simulate)
+            return ItemHandlerHelper.copyStackWithSize(stackInSlot, extractAmount);
+        return extractAmount == stackInSlot.getCount() ? this.inventory.removeStackFromSlot(slot) : this.inventory.decrStackSize(slot, extractAmount);
+    }
+
+    @Override
+    public int getSlotLimit(int slot)
+    {
+        return this.inventory.getSlotStackLimit(slot);
+    }
+
+    @Override
+    public boolean isItemValid(int slot, ItemStack stack)
+    {
+        return this.inventory.isItemValidForSlot(slot, stack);
+    }
+
+    @Override
+    public void setStackInSlot(int slot, ItemStack stack)
+    {
+        this.inventory.setInventorySlotContents(slot, stack);
+    }
+
+    /**
+     * Finds the first slot that contains a stack at or after the specified slot.
+     *
+     * @param slot The slot to start looking from
+     * @return The next occupied slot or -1 if there are no occupied slots left
+     */
+    public int getNextOccupiedSlot(int slot)
+    {
+        return this.inventory.getNextOccupiedSlot(slot);
+    }
+
+    @Override
+    public int getComparatorLevel()
+    {
+        return this.inventory.getComparatorLevel();
+    }
+
+    /**
+     * @return The inventory this handler modifies
+     */
+    public DynamicInventory getInventory()
+    {
+        return inventory;
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.ocelot.sonar.common.util;
+
+import net.minecraft.tileentity.TileEntity;
+
+/**
+ * <p>Provides a cached comparator output level for an inventory, so comparators do not need to check every slot each time they update.</p>
+ * <p>{@link io.github.ocelot.sonar.common.block.BaseBlock#getComparatorInputOverride(TileEntity)} uses this when implemented by the tile entity or by its item handler capability.</p>
+ *
+ * @author Ocelot
+ * @see DynamicInventory
+ * @since 5.1.0
+ */
+@FunctionalInterface
+public interface IComparatorLevelProvider
+{
+    /**
+     * @return The redstone level from 0 to 15 a comparator should output based on how full the inventory is
+     */
+    int getComparatorLevel();
+}
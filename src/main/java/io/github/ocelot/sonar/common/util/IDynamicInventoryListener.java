@@ -0,0 +1,22 @@
+package io.github.ocelot.sonar.common.util;
+
+import java.util.BitSet;
+
+/**
+ * <p>Listens for changes to specific slots in a {@link DynamicInventory}.</p>
+ *
+ * @author Ocelot
+ * @see DynamicInventory#addSlotListener(IDynamicInventoryListener)
+ * @since 5.1.0
+ */
+@FunctionalInterface
+public interface IDynamicInventoryListener
+{
+    /**
+     * Called when slots in the inventory have changed.
+     *
+     * @param inventory The inventory that changed
+     * @param slots     The indices of all slots that changed. This set is reused by the inventory, so it must not be modified and must be copied if it is needed after this call
+     */
+    void onSlotsChanged(DynamicInventory inventory, BitSet slots);
+}
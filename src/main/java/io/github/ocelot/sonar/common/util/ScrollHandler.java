@@ -212,7 +212,7 @@ public final class ScrollHandler implements INBTSerializable<CompoundNBT>
      */
     public ScrollHandler setScroll(float scroll)
     {
-        this.scroll = MathHelper.clamp(scroll, 0, this.height - this.visibleHeight);
+        this.scroll = MathHelper.clamp(scroll, 0, this.getMaxScroll());
         this.nextScroll = this.scroll;
         this.lastScroll = this.scroll;
         if (this.markDirty != null)
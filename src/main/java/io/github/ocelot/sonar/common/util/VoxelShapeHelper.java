@@ -1,6 +1,9 @@
 package io.github.ocelot.sonar.common.util;
 
 import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.state.DirectionProperty;
+import net.minecraft.state.properties.BlockStateProperties;
 import net.minecraft.util.Direction;
 import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.shapes.IBooleanFunction;
@@ -14,6 +17,7 @@ import java.util.function.Function;
 
 /**
  * <p>Contains simple, useful methods for creating a {@link VoxelShape} with provided {@link Direction}.</p>
+ * <p>Blocks with a shape for each facing should create a {@link DirectionalShapeTable} once instead of rotating shapes for every state or call.</p>
  *
  * @author Ocelot
  * @see VoxelShape
@@ -224,4 +228,93 @@ public final class VoxelShapeHelper
             return result.simplify();
         }
     }
+
+    /**
+     * <p>Holds a shape rotated into every direction allowed by a {@link DirectionProperty}, so getting the shape for a state does not need to create or combine any shapes.</p>
+     * <p>All rotations are built when the table is created, which should be done once and stored in a static field. Rotations that result in the same shape share a single instance.</p>
+     *
+     * @author Ocelot
+     * @see Builder#rotate(Direction)
+     * @since 5.1.0
+     */
+    public static final class DirectionalShapeTable
+    {
+        private final DirectionProperty property;
+        private final VoxelShape[] shapes;
+
+        public DirectionalShapeTable(DirectionProperty property, Builder builder)
+        {
+            this.property = property;
+            this.shapes = new VoxelShape[Direction.values().length];
+            for (Direction direction : property.getAllowedValues())
+            {
+                VoxelShape shape = builder.rotate(direction).build();
+                for (VoxelShape existing : this.shapes)
+                {
+                    if (existing != null && !VoxelShapes.compare(existing, shape, IBooleanFunction.NOT_SAME))
+                    {
+                        shape = existing;
+                        break;
+                    }
+                }
+                this.shapes[direction.getIndex()] = shape;
+            }
+        }
+
+        /**
+         * Creates a table for {@link BlockStateProperties#FACING} with all six rotations of the specified shape.
+         *
+         * @param builder The builder containing the shape to rotate
+         * @return A new table for all directions
+         */
+        public static DirectionalShapeTable facing(Builder builder)
+        {
+            return new DirectionalShapeTable(BlockStateProperties.FACING, builder);
+        }
+
+        /**
+         * Creates a table for {@link BlockStateProperties#HORIZONTAL_FACING} with the four horizontal rotations of the specified shape.
+         *
+         * @param builder The builder containing the shape to rotate
+         * @return A new table for all horizontal directions
+         */
+        public static DirectionalShapeTable horizontal(Builder builder)
+        {
+            return new DirectionalShapeTable(BlockStateProperties.HORIZONTAL_FACING, builder);
+        }
+
+        /**
+         * Fetches the shape rotated towards the specified direction.
+         *
+         * @param direction The direction to get the shape for
+         * @return The rotated shape
+         * @throws IllegalArgumentException If the direction is not allowed by the property of this table
+         */
+        public VoxelShape get(Direction direction)
+        {
+            VoxelShape shape = this.shapes[direction.getIndex()];
+            if (shape == null)
+                throw new IllegalArgumentException("Direction '" + direction + "' is not a value of " + this.property);
+            return shape;
+        }
+
+        /**
+         * Fetches the shape rotated towards the direction of the property in the specified state.
+         *
+         * @param state The state to get the shape for. Must have the property of this table
+         * @return The rotated shape
+         */
+        public VoxelShape get(BlockState state)
+        {
+            return this.get(state.get(this.property));
+        }
+
+        /**
+         * @return The property used to get shapes from states
+         */
+        public DirectionProperty getProperty()
+        {
+            return property;
+        }
+    }
 }
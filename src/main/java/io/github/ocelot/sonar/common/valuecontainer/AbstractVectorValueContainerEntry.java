@@ -21,7 +21,7 @@ public abstract class AbstractVectorValueContainerEntry<T> implements ValueConta
     private final String name;
     private final T minValue;
     private final T maxValue;
-    private final T previousValue;
+    private T previousValue;
     protected T value;
     private Predicate<String> validator;
 
@@ -163,6 +163,20 @@ public abstract class AbstractVectorValueContainerEntry<T> implements ValueConta
         return !Objects.equals(this.value, this.previousValue);
     }
 
+    @Override
+    public void markClean()
+    {
+        this.previousValue = this.value;
+    }
+
+    @Override
+    public boolean isInBounds()
+    {
+        if (this.minValue != null && (this.getX(this.value).doubleValue() < this.getX(this.minValue).doubleValue() || this.getY(this.value).doubleValue() < this.getY(this.minValue).doubleValue() || this.getZ(this.value).doubleValue() < this.getZ(this.minValue).doubleValue()))
+            return false;
+        return this.maxValue == null || (this.getX(this.value).doubleValue() <= this.getX(this.maxValue).doubleValue() && this.getY(this.value).doubleValue() <= this.getY(this.maxValue).doubleValue() && this.getZ(this.value).doubleValue() <= this.getZ(this.maxValue).doubleValue());
+    }
+
     @Override
     public String getDisplay()
     {
@@ -1,6 +1,8 @@
 package io.github.ocelot.sonar.common.valuecontainer;
 
 import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraftforge.common.util.Constants;
 import org.apache.commons.lang3.ArrayUtils;
@@ -23,7 +25,7 @@ public class ArrayValueContainerEntry<T> implements ValueContainerEntry<T>, Swit
     private final ITextComponent displayName;
     private final String name;
     private final T[] values;
-    private final int previousIndex;
+    private int previousIndex;
     private int index;
     private Function<T, String> displayGenerator;
     private Predicate<String> validator;
@@ -87,6 +89,18 @@ public class ArrayValueContainerEntry<T> implements ValueContainerEntry<T>, Swit
         return this.index != this.previousIndex;
     }
 
+    @Override
+    public void markClean()
+    {
+        this.previousIndex = this.index;
+    }
+
+    @Override
+    public boolean isInBounds()
+    {
+        return this.index >= 0 && this.index < this.values.length;
+    }
+
     @Override
     public String getDisplay()
     {
@@ -105,6 +119,18 @@ public class ArrayValueContainerEntry<T> implements ValueContainerEntry<T>, Swit
         this.index = nbt.contains(this.getName(), Constants.NBT.TAG_ANY_NUMERIC) ? nbt.getInt(this.getName()) : this.previousIndex;
     }
 
+    @Override
+    public void writeValue(PacketBuffer buf)
+    {
+        buf.writeVarInt(this.index);
+    }
+
+    @Override
+    public void readValue(PacketBuffer buf)
+    {
+        this.index = MathHelper.clamp(buf.readVarInt(), 0, this.values.length - 1);
+    }
+
     @Override
     public void parse(String data)
     {
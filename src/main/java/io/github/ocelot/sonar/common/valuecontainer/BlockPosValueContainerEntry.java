@@ -1,6 +1,7 @@
 package io.github.ocelot.sonar.common.valuecontainer;
 
 import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.network.PacketBuffer;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3i;
 import net.minecraft.util.text.ITextComponent;
@@ -63,6 +64,18 @@ public class BlockPosValueContainerEntry extends AbstractVectorValueContainerEnt
         this.value = nbt.contains(this.getName(), Constants.NBT.TAG_LONG) ? BlockPos.fromLong(nbt.getLong(this.getName())) : new BlockPos(0, 0, 0);
     }
 
+    @Override
+    public void writeValue(PacketBuffer buf)
+    {
+        buf.writeBlockPos(this.value);
+    }
+
+    @Override
+    public void readValue(PacketBuffer buf)
+    {
+        this.value = buf.readBlockPos();
+    }
+
     @Override
     public void parse(String data)
     {
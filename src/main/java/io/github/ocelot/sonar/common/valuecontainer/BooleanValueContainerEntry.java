@@ -1,6 +1,7 @@
 package io.github.ocelot.sonar.common.valuecontainer;
 
 import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.network.PacketBuffer;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraftforge.common.util.Constants;
 
@@ -18,7 +19,7 @@ public class BooleanValueContainerEntry implements ValueContainerEntry<Boolean>,
 {
     private final ITextComponent displayName;
     private final String name;
-    private final Boolean previousValue;
+    private Boolean previousValue;
     private Boolean value;
     private Predicate<String> validator;
     private boolean toggle;
@@ -71,6 +72,12 @@ public class BooleanValueContainerEntry implements ValueContainerEntry<Boolean>,
         return this.value.booleanValue() != this.previousValue.booleanValue();
     }
 
+    @Override
+    public void markClean()
+    {
+        this.previousValue = this.value;
+    }
+
     @Override
     public String getDisplay()
     {
@@ -106,6 +113,18 @@ public class BooleanValueContainerEntry implements ValueContainerEntry<Boolean>,
         this.value = nbt.contains(this.getName(), Constants.NBT.TAG_BYTE) ? nbt.getBoolean(this.getName()) : this.previousValue;
     }
 
+    @Override
+    public void writeValue(PacketBuffer buf)
+    {
+        buf.writeBoolean(this.value);
+    }
+
+    @Override
+    public void readValue(PacketBuffer buf)
+    {
+        this.value = buf.readBoolean();
+    }
+
     @Override
     public void parse(String data)
     {
@@ -0,0 +1,165 @@
+package io.github.ocelot.sonar.common.valuecontainer;
+
+import io.github.ocelot.sonar.common.network.message.SonarMessage;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraftforge.fml.network.NetworkEvent;
+
+import javax.annotation.Nullable;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * <p>A pre-built message that applies the same {@link ValueContainer} changes to many containers at once.</p>
+ * <p>Containers can either be specified as a list of positions or as a region. When using a region, any positions that are not value containers are skipped.</p>
+ *
+ * @author Ocelot
+ * @see ValueContainerBulkEditor
+ * @since 5.1.0
+ */
+public class BulkSyncValueContainerMessage implements SonarMessage<IValueContainerServerHandler>
+{
+    /**
+     * The maximum number of positions that can be sent in a list.
+     */
+    public static final int MAX_POSITIONS = 2048;
+    /**
+     * The maximum number of blocks a region can contain.
+     */
+    public static final int MAX_REGION_VOLUME = 32768;
+
+    private BlockPos[] positions;
+    private BlockPos from;
+    private BlockPos to;
+    private List<ValueContainerEntry<?>> entries;
+    private BitSet indices;
+    private byte[] payload;
+
+    public BulkSyncValueContainerMessage()
+    {
+    }
+
+    public BulkSyncValueContainerMessage(Collection<BlockPos> positions, List<ValueContainerEntry<?>> entries)
+    {
+        if (positions.size() > MAX_POSITIONS)
+            throw new IllegalArgumentException("Too many positions. " + positions.size() + " > " + MAX_POSITIONS);
+        this.positions = positions.toArray(new BlockPos[0]);
+        this.entries = entries;
+        this.indices = ValueContainer.getDirtyEntries(entries);
+    }
+
+    public BulkSyncValueContainerMessage(BlockPos from, BlockPos to, List<ValueContainerEntry<?>> entries)
+    {
+        this.from = new BlockPos(Math.min(from.getX(), to.getX()), Math.min(from.getY(), to.getY()), Math.min(from.getZ(), to.getZ()));
+        this.to = new BlockPos(Math.max(from.getX(), to.getX()), Math.max(from.getY(), to.getY()), Math.max(from.getZ(), to.getZ()));
+        if (getVolume(this.from, this.to) > MAX_REGION_VOLUME)
+            throw new IllegalArgumentException("Region is too large. " + getVolume(this.from, this.to) + " > " + MAX_REGION_VOLUME);
+        this.entries = entries;
+        this.indices = ValueContainer.getDirtyEntries(entries);
+    }
+
+    private static long getVolume(BlockPos from, BlockPos to)
+    {
+        return (long) (to.getX() - from.getX() + 1) * (to.getY() - from.getY() + 1) * (to.getZ() - from.getZ() + 1);
+    }
+
+    @Override
+    public void readPacketData(PacketBuffer buf)
+    {
+        if (buf.readBoolean())
+        {
+            this.from = buf.readBlockPos();
+            this.to = buf.readBlockPos();
+            if (this.from.getX() > this.to.getX() || this.from.getY() > this.to.getY() || this.from.getZ() > this.to.getZ() || getVolume(this.from, this.to) > MAX_REGION_VOLUME)
+                throw new IllegalStateException("Invalid region from " + this.from + " to " + this.to);
+        }
+        else
+        {
+            int count = buf.readVarInt();
+            if (count < 0 || count > MAX_POSITIONS)
+                throw new IllegalStateException("Invalid number of positions: " + count);
+            this.positions = new BlockPos[count];
+            for (int i = 0; i < count; i++)
+                this.positions[i] = buf.readBlockPos();
+        }
+        this.payload = new byte[buf.readableBytes()];
+        buf.readBytes(this.payload);
+    }
+
+    @Override
+    public void writePacketData(PacketBuffer buf)
+    {
+        buf.writeBoolean(this.isRegion());
+        if (this.isRegion())
+        {
+            buf.writeBlockPos(this.from);
+            buf.writeBlockPos(this.to);
+        }
+        else
+        {
+            buf.writeVarInt(this.positions.length);
+            for (BlockPos pos : this.positions)
+                buf.writeBlockPos(pos);
+        }
+        if (this.entries != null)
+        {
+            ValueContainer.serialize(this.entries, this.indices, buf);
+        }
+        else
+        {
+            buf.writeBytes(this.payload);
+        }
+    }
+
+    @Override
+    public void processPacket(IValueContainerServerHandler handler, NetworkEvent.Context ctx)
+    {
+        handler.handleBulkSyncValueContainerMessage(this, ctx);
+    }
+
+    /**
+     * @return Whether or not this message specifies a region instead of a list of positions
+     */
+    public boolean isRegion()
+    {
+        return this.positions == null;
+    }
+
+    /**
+     * @return The positions to apply changes to or null if this message specifies a region
+     */
+    @Nullable
+    public BlockPos[] getPositions()
+    {
+        return positions;
+    }
+
+    /**
+     * @return The lowest corner of the region or null if this message specifies positions
+     */
+    @Nullable
+    public BlockPos getFrom()
+    {
+        return from;
+    }
+
+    /**
+     * @return The highest corner of the region or null if this message specifies positions
+     */
+    @Nullable
+    public BlockPos getTo()
+    {
+        return to;
+    }
+
+    /**
+     * @return The binary container data written by {@link ValueContainer#serialize(List, PacketBuffer)}
+     */
+    public byte[] getPayload()
+    {
+        if (this.payload == null)
+            this.payload = ValueContainer.serializeBytes(this.entries, this.indices);
+        return payload;
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.ocelot.sonar.common.valuecontainer;
+
+import io.github.ocelot.sonar.common.network.message.SonarMessage;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+import net.minecraftforge.fml.network.NetworkEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>A pre-built message that tells the client the result of a {@link BulkSyncValueContainerMessage}.</p>
+ *
+ * @author Ocelot
+ * @see ValueContainerBulkEditor
+ * @since 5.1.0
+ */
+public class BulkValueContainerResultMessage implements SonarMessage<IValueContainerClientHandler>
+{
+    /**
+     * The maximum number of failed positions that are sent to the client.
+     */
+    public static final int MAX_FAILED_POSITIONS = 256;
+
+    private int applied;
+    private int failedCount;
+    private List<BlockPos> failed;
+
+    public BulkValueContainerResultMessage()
+    {
+    }
+
+    public BulkValueContainerResultMessage(ValueContainerBulkEditor.Result result)
+    {
+        this.applied = result.getApplied();
+        this.failedCount = result.getFailed().size();
+        this.failed = result.getFailed().size() > MAX_FAILED_POSITIONS ? result.getFailed().subList(0, MAX_FAILED_POSITIONS) : result.getFailed();
+    }
+
+    @Override
+    public void readPacketData(PacketBuffer buf)
+    {
+        this.applied = buf.readVarInt();
+        this.failedCount = buf.readVarInt();
+        int size = buf.readVarInt();
+        if (size < 0 || size > MAX_FAILED_POSITIONS)
+            throw new IllegalStateException("Invalid number of failed positions: " + size);
+        this.failed = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            this.failed.add(buf.readBlockPos());
+    }
+
+    @Override
+    public void writePacketData(PacketBuffer buf)
+    {
+        buf.writeVarInt(this.applied);
+        buf.writeVarInt(this.failedCount);
+        buf.writeVarInt(this.failed.size());
+        for (BlockPos pos : this.failed)
+            buf.writeBlockPos(pos);
+    }
+
+    @Override
+    public void processPacket(IValueContainerClientHandler handler, NetworkEvent.Context ctx)
+    {
+        handler.handleBulkValueContainerResultMessage(this, ctx);
+    }
+
+    /**
+     * @return The number of containers the changes were applied to
+     */
+    @OnlyIn(Dist.CLIENT)
+    public int getApplied()
+    {
+        return applied;
+    }
+
+    /**
+     * @return The total number of positions that failed, which may be more than the size of {@link #getFailed()}
+     */
+    @OnlyIn(Dist.CLIENT)
+    public int getFailedCount()
+    {
+        return failedCount;
+    }
+
+    /**
+     * @return The first {@value MAX_FAILED_POSITIONS} positions the changes could not be applied to
+     */
+    @OnlyIn(Dist.CLIENT)
+    public List<BlockPos> getFailed()
+    {
+        return Collections.unmodifiableList(failed);
+    }
+}
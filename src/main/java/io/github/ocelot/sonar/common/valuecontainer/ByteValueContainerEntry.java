@@ -1,6 +1,7 @@
 package io.github.ocelot.sonar.common.valuecontainer;
 
 import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.network.PacketBuffer;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraftforge.common.util.Constants;
 
@@ -59,13 +60,25 @@ public class ByteValueContainerEntry extends NumberValueContainerEntry<Byte>
     @Override
     public void write(CompoundNBT nbt)
     {
-        nbt.putByte(this.getName(), this.value);
+        nbt.putByte(this.getName(), this.<Byte>getValue());
     }
 
     @Override
     public void read(CompoundNBT nbt)
     {
-        this.value = nbt.contains(this.getName(), Constants.NBT.TAG_BYTE) ? nbt.getByte(this.getName()) : this.getPreviousValue();
+        this.setValue(nbt.contains(this.getName(), Constants.NBT.TAG_BYTE) ? nbt.getByte(this.getName()) : this.<Byte>getPreviousValue());
+    }
+
+    @Override
+    public void writeValue(PacketBuffer buf)
+    {
+        buf.writeByte(this.<Byte>getValue());
+    }
+
+    @Override
+    public void readValue(PacketBuffer buf)
+    {
+        this.setValue(buf.readByte());
     }
 
     @Override
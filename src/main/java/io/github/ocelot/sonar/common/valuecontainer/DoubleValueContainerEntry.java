@@ -1,11 +1,15 @@
 package io.github.ocelot.sonar.common.valuecontainer;
 
 import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.network.PacketBuffer;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraftforge.common.util.Constants;
+import org.apache.commons.lang3.math.NumberUtils;
 
 /**
  * <p>A {@link NumberValueContainerEntry} that supports double data types.</p>
+ * <p>The value is stored as a primitive double, so editing the value with a slider or typing plain numbers does not create any objects. The value stored by {@link NumberValueContainerEntry} is not used,
+ * so subclasses must use {@link #getDoubleValue()} or {@link #setDoubleValue(double)}. {@link #getValue()} boxes the value on every call, so {@link #getDoubleValue()} should be preferred.</p>
  *
  * @author Ocelot
  * @since 2.1.0
@@ -13,21 +17,34 @@ import net.minecraftforge.common.util.Constants;
 public class DoubleValueContainerEntry extends NumberValueContainerEntry<Double>
 {
     private final ITextComponent displayName;
+    private final double min;
+    private final double max;
+    private double previous;
+    private double current;
     private boolean bounds;
 
     public DoubleValueContainerEntry(ITextComponent displayName, String name, double value)
     {
-        this(displayName, name, value, Double.MIN_VALUE, Double.MAX_VALUE);
+        this(displayName, name, value, -Double.MAX_VALUE, Double.MAX_VALUE);
         this.bounds = false;
     }
 
     public DoubleValueContainerEntry(ITextComponent displayName, String name, double value, double minValue, double maxValue)
     {
-        super(name, value, minValue, maxValue);
+        super(name);
         this.displayName = displayName;
+        this.min = minValue;
+        this.max = maxValue;
+        this.previous = value;
+        this.current = value;
         this.bounds = true;
     }
 
+    private double clamp(double value)
+    {
+        return value < this.min ? this.min : value > this.max ? this.max : value;
+    }
+
     @Override
     protected Double getValue(Number number)
     {
@@ -56,16 +73,132 @@ public class DoubleValueContainerEntry extends NumberValueContainerEntry<Double>
         return displayName;
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public <E> E getValue()
+    {
+        return (E) Double.valueOf(this.current);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <E> E getPreviousValue()
+    {
+        return (E) Double.valueOf(this.previous);
+    }
+
+    @Override
+    protected void setValue(Double value)
+    {
+        this.setDoubleValue(value);
+    }
+
+    @Override
+    public Double getMinValue()
+    {
+        return this.min;
+    }
+
+    @Override
+    public Double getMaxValue()
+    {
+        return this.max;
+    }
+
+    /**
+     * @return The current value of this entry
+     * @since 5.1.0
+     */
+    public double getDoubleValue()
+    {
+        return current;
+    }
+
+    /**
+     * Sets the value of this entry, clamped between the minimum and maximum values.
+     *
+     * @param value The new value
+     * @since 5.1.0
+     */
+    public void setDoubleValue(double value)
+    {
+        this.current = this.clamp(value);
+    }
+
+    @Override
+    public boolean isDirty()
+    {
+        return Double.compare(this.current, this.previous) != 0;
+    }
+
+    @Override
+    public void markClean()
+    {
+        this.previous = this.current;
+    }
+
+    @Override
+    public String getDisplay()
+    {
+        return String.valueOf(this.current);
+    }
+
+    @Override
+    public void parse(String data)
+    {
+        double value = NumberParser.parseDouble(data);
+        this.current = this.clamp(Double.isNaN(value) ? NumberUtils.createNumber(data.trim()).doubleValue() : value);
+    }
+
+    @Override
+    public double getSliderValue()
+    {
+        return this.current;
+    }
+
+    @Override
+    public double getMinSliderValue()
+    {
+        return this.min;
+    }
+
+    @Override
+    public double getMaxSliderValue()
+    {
+        return this.max;
+    }
+
+    @Override
+    public boolean setSliderValue(double value)
+    {
+        if (this.hasCustomValidator())
+            return false;
+        this.current = this.clamp(value);
+        return true;
+    }
+
     @Override
     public void write(CompoundNBT nbt)
     {
-        nbt.putDouble(this.getName(), this.value);
+        nbt.putDouble(this.getName(), this.current);
     }
 
     @Override
     public void read(CompoundNBT nbt)
     {
-        this.value = nbt.contains(this.getName(), Constants.NBT.TAG_DOUBLE) ? nbt.getDouble(this.getName()) : this.getPreviousValue();
+        this.current = nbt.contains(this.getName(), Constants.NBT.TAG_DOUBLE) ? nbt.getDouble(this.getName()) : this.previous;
+    }
+
+    @Override
+    public void writeValue(PacketBuffer buf)
+    {
+        buf.writeDouble(this.current);
+    }
+
+    @Override
+    public void readValue(PacketBuffer buf)
+    {
+        this.current = buf.readDouble();
     }
 
     @Override
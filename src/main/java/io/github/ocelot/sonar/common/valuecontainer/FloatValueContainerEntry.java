@@ -1,6 +1,7 @@
 package io.github.ocelot.sonar.common.valuecontainer;
 
 import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.network.PacketBuffer;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraftforge.common.util.Constants;
 
@@ -17,7 +18,7 @@ public class FloatValueContainerEntry extends NumberValueContainerEntry<Float>
 
     public FloatValueContainerEntry(ITextComponent displayName, String name, float value)
     {
-        this(displayName, name, value, Float.MIN_VALUE, Float.MAX_VALUE);
+        this(displayName, name, value, -Float.MAX_VALUE, Float.MAX_VALUE);
         this.bounds = false;
     }
 
@@ -59,13 +60,25 @@ public class FloatValueContainerEntry extends NumberValueContainerEntry<Float>
     @Override
     public void write(CompoundNBT nbt)
     {
-        nbt.putFloat(this.getName(), this.value);
+        nbt.putFloat(this.getName(), this.<Float>getValue());
     }
 
     @Override
     public void read(CompoundNBT nbt)
     {
-        this.value = nbt.contains(this.getName(), Constants.NBT.TAG_FLOAT) ? nbt.getFloat(this.getName()) : this.getPreviousValue();
+        this.setValue(nbt.contains(this.getName(), Constants.NBT.TAG_FLOAT) ? nbt.getFloat(this.getName()) : this.<Float>getPreviousValue());
+    }
+
+    @Override
+    public void writeValue(PacketBuffer buf)
+    {
+        buf.writeFloat(this.<Float>getValue());
+    }
+
+    @Override
+    public void readValue(PacketBuffer buf)
+    {
+        this.setValue(buf.readFloat());
     }
 
     @Override
@@ -1,9 +1,13 @@
 package io.github.ocelot.sonar.common.valuecontainer;
 
+import io.github.ocelot.sonar.client.screen.ValueContainerEditorScreen;
+import io.github.ocelot.sonar.common.network.SonarNetworkManager;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.screen.Screen;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.text.StringTextComponent;
+import net.minecraft.util.text.TextFormatting;
 import net.minecraft.world.World;
 import net.minecraftforge.fml.network.NetworkEvent;
 import org.apache.logging.log4j.LogManager;
@@ -32,7 +36,7 @@ public interface IValueContainerClientHandler
         Minecraft minecraft = Minecraft.getInstance();
         World world = minecraft.world;
 
-        ctx.enqueueWork(() ->
+        SonarNetworkManager.enqueueWork(ctx, () ->
         {
             BlockPos pos = msg.getPos();
 
@@ -54,6 +58,85 @@ public interface IValueContainerClientHandler
         });
     }
 
+    /**
+     * Called when the server sends new values for the value container screen that is open.
+     *
+     * @param msg The message received
+     * @param ctx The message context
+     * @since 5.1.0
+     */
+    default void handleUpdateValueContainerMessage(UpdateValueContainerMessage msg, NetworkEvent.Context ctx)
+    {
+        Minecraft minecraft = Minecraft.getInstance();
+
+        SonarNetworkManager.enqueueWork(ctx, () ->
+        {
+            if (!(minecraft.currentScreen instanceof ValueContainerEditorScreen))
+                return;
+
+            ValueContainerEditorScreen screen = (ValueContainerEditorScreen) minecraft.currentScreen;
+            if (!screen.getPos().equals(msg.getPos()))
+                return;
+
+            try
+            {
+                screen.receiveUpdate(msg.getPayload());
+            }
+            catch (Exception e)
+            {
+                LOGGER.error("Failed to read value container update at '" + msg.getPos() + "'", e);
+            }
+        });
+    }
+
+    /**
+     * Called when the server has finished applying a bulk edit.
+     *
+     * @param msg The message received
+     * @param ctx The message context
+     * @since 5.1.0
+     */
+    default void handleBulkValueContainerResultMessage(BulkValueContainerResultMessage msg, NetworkEvent.Context ctx)
+    {
+        Minecraft minecraft = Minecraft.getInstance();
+
+        SonarNetworkManager.enqueueWork(ctx, () ->
+        {
+            if (minecraft.player == null)
+                return;
+
+            minecraft.player.sendMessage(new StringTextComponent("Applied changes to " + msg.getApplied() + " value containers"));
+            if (msg.getFailedCount() > 0)
+            {
+                LOGGER.warn("Failed to apply changes to " + msg.getFailedCount() + " value containers: " + msg.getFailed());
+                minecraft.player.sendMessage(new StringTextComponent("Failed to apply changes to " + msg.getFailedCount() + " value containers").applyTextStyle(TextFormatting.RED));
+            }
+        });
+    }
+
+    /**
+     * Called when the server rejects changes made to a value container.
+     *
+     * @param msg The message received
+     * @param ctx The message context
+     * @since 5.1.0
+     */
+    default void handleRejectValueContainerMessage(RejectValueContainerMessage msg, NetworkEvent.Context ctx)
+    {
+        Minecraft minecraft = Minecraft.getInstance();
+
+        SonarNetworkManager.enqueueWork(ctx, () ->
+        {
+            LOGGER.warn("Value container changes at '" + msg.getPos() + "' were rejected: " + msg.getErrors());
+            if (minecraft.player == null)
+                return;
+
+            minecraft.player.sendMessage(new StringTextComponent("Value container changes were rejected").applyTextStyle(TextFormatting.RED));
+            for (ValueContainerError error : msg.getErrors())
+                minecraft.player.sendMessage(new StringTextComponent("  " + error).applyTextStyle(TextFormatting.RED));
+        });
+    }
+
     /**
      * Creates a new screen instance for the specified value container.
      *
@@ -1,13 +1,19 @@
 package io.github.ocelot.sonar.common.valuecontainer;
 
+import io.github.ocelot.sonar.common.network.SonarNetworkManager;
 import net.minecraft.entity.player.ServerPlayerEntity;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import net.minecraftforge.fml.network.NetworkEvent;
+import net.minecraftforge.fml.network.PacketDistributor;
+import net.minecraftforge.fml.network.simple.SimpleChannel;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import javax.annotation.Nullable;
+import java.util.List;
+
 /**
  * <p>Manages the receiving of value container messages on the server side.</p>
  *
@@ -27,8 +33,10 @@ public interface IValueContainerServerHandler
     default void handleSyncValueContainerMessage(SyncValueContainerMessage msg, NetworkEvent.Context ctx)
     {
         ServerPlayerEntity player = ctx.getSender();
+        SimpleChannel channel = this.getValueContainerChannel();
+        ValueContainerJournal journal = this.getValueContainerJournal();
 
-        ctx.enqueueWork(() ->
+        SonarNetworkManager.enqueueWork(ctx, () ->
         {
             if (player == null)
                 return;
@@ -48,7 +56,137 @@ public interface IValueContainerServerHandler
                 return;
             }
 
-            ValueContainer.deserialize(world, pos, te instanceof ValueContainer ? (ValueContainer) te : (ValueContainer) world.getBlockState(pos).getBlock(), msg.getData());
+            ValueContainer container = te instanceof ValueContainer ? (ValueContainer) te : (ValueContainer) world.getBlockState(pos).getBlock();
+            List<ValueContainerError> errors = journal != null ? journal.record(world, pos, container, player.getUniqueID(), () -> msg.apply(world, container)) : msg.apply(world, container);
+            if (!errors.isEmpty())
+            {
+                LOGGER.warn("Rejected value container changes at '" + pos + "' from player with id " + player.getUniqueID() + ": " + errors);
+                if (channel != null)
+                    channel.send(PacketDistributor.PLAYER.with(() -> player), new RejectValueContainerMessage(pos, errors));
+            }
+        });
+    }
+
+    /**
+     * Called when the client starts or stops viewing a value container screen.
+     *
+     * @param msg The message received
+     * @param ctx The message context
+     * @since 5.1.0
+     */
+    default void handleSubscribeValueContainerMessage(SubscribeValueContainerMessage msg, NetworkEvent.Context ctx)
+    {
+        ServerPlayerEntity player = ctx.getSender();
+        ValueContainerStreamer streamer = this.getValueContainerStreamer();
+
+        SonarNetworkManager.enqueueWork(ctx, () ->
+        {
+            if (player == null)
+                return;
+
+            if (streamer == null)
+            {
+                LOGGER.error("Player with id " + player.getUniqueID() + " tried to subscribe to a value container, but there is no streamer");
+                return;
+            }
+
+            if (!msg.isSubscribe())
+            {
+                streamer.unsubscribe(player);
+                return;
+            }
+
+            World world = player.world;
+            BlockPos pos = msg.getPos();
+
+            TileEntity te = world.getTileEntity(pos);
+            if (!(te instanceof ValueContainer) && !(world.getBlockState(pos).getBlock() instanceof ValueContainer))
+            {
+                LOGGER.error("Tile Entity or Block at '" + pos + "' was expected to be a ValueContainer, but it was " + te + "!");
+                return;
+            }
+
+            if (!player.canUseCommandBlock())
+            {
+                LOGGER.error("Player with id " + player.getUniqueID() + " does not have the permission to view value containers!");
+                return;
+            }
+
+            streamer.subscribe(player, pos);
+        });
+    }
+
+    /**
+     * Called when the client tells the server to apply the same changes to many containers.
+     *
+     * @param msg The message received
+     * @param ctx The message context
+     * @since 5.1.0
+     */
+    default void handleBulkSyncValueContainerMessage(BulkSyncValueContainerMessage msg, NetworkEvent.Context ctx)
+    {
+        ServerPlayerEntity player = ctx.getSender();
+        ValueContainerBulkEditor bulkEditor = this.getValueContainerBulkEditor();
+        ValueContainerJournal journal = this.getValueContainerJournal();
+
+        SonarNetworkManager.enqueueWork(ctx, () ->
+        {
+            if (player == null)
+                return;
+
+            if (bulkEditor == null)
+            {
+                LOGGER.error("Player with id " + player.getUniqueID() + " tried to bulk edit value containers, but there is no bulk editor");
+                return;
+            }
+
+            if (!player.canUseCommandBlock())
+            {
+                LOGGER.error("Player with id " + player.getUniqueID() + " does not have the permission to modify value containers!");
+                return;
+            }
+
+            bulkEditor.submit(player, msg, journal);
         });
     }
+
+    /**
+     * @return The streamer used to send container updates to clients or null to not support streaming
+     * @since 5.1.0
+     */
+    @Nullable
+    default ValueContainerStreamer getValueContainerStreamer()
+    {
+        return null;
+    }
+
+    /**
+     * @return The editor used to apply bulk container changes or null to not support bulk editing
+     * @since 5.1.0
+     */
+    @Nullable
+    default ValueContainerBulkEditor getValueContainerBulkEditor()
+    {
+        return null;
+    }
+
+    /**
+     * @return The journal used to record changes made by players or null to not record changes
+     * @since 5.1.0
+     */
+    @Nullable
+    default ValueContainerJournal getValueContainerJournal()
+    {
+        return null;
+    }
+
+    /**
+     * @return The channel used to send {@link RejectValueContainerMessage} to clients or null to not tell clients when changes are rejected
+     * @since 5.1.0
+     */
+    @Nullable
+    default SimpleChannel getValueContainerChannel()
+    {
+        return null;
+    }
 }
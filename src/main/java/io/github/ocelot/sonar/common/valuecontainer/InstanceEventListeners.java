@@ -0,0 +1,78 @@
+package io.github.ocelot.sonar.common.valuecontainer;
+
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.eventbus.api.Event;
+import net.minecraftforge.eventbus.api.EventPriority;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * <p>Forwards events to every instance of a class that is still in use. Each event only has one listener on the event bus no matter how many instances are created,
+ * and instances are only weakly referenced, so they stop receiving events and can be garbage collected once nothing else references them.</p>
+ *
+ * @param <T> The type of object to forward events to
+ * @author Ocelot
+ * @since 5.1.0
+ */
+final class InstanceEventListeners<T>
+{
+    private final Set<T> instances;
+
+    InstanceEventListeners()
+    {
+        this.instances = Collections.newSetFromMap(new WeakHashMap<>());
+    }
+
+    /**
+     * Starts forwarding events to the specified instance.
+     *
+     * @param instance The instance to forward events to
+     */
+    synchronized void add(T instance)
+    {
+        this.instances.add(instance);
+    }
+
+    /**
+     * Registers a listener to the Forge event bus that is called for every instance.
+     *
+     * @param eventType The type of event to listen for
+     * @param listener  The listener to call with each instance and the event
+     * @param <E>       The type of event
+     */
+    <E extends Event> void addListener(Class<E> eventType, BiConsumer<T, E> listener)
+    {
+        this.addListener(EventPriority.NORMAL, eventType, listener);
+    }
+
+    /**
+     * Registers a listener to the Forge event bus that is called for every instance.
+     *
+     * @param priority  The priority of the listener
+     * @param eventType The type of event to listen for
+     * @param listener  The listener to call with each instance and the event
+     * @param <E>       The type of event
+     */
+    <E extends Event> void addListener(EventPriority priority, Class<E> eventType, BiConsumer<T, E> listener)
+    {
+        MinecraftForge.EVENT_BUS.addListener(priority, false, eventType, event ->
+        {
+            for (Object instance : this.getInstances())
+                listener.accept(this.cast(instance), event);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private T cast(Object instance)
+    {
+        return (T) instance;
+    }
+
+    private synchronized Object[] getInstances()
+    {
+        return this.instances.toArray();
+    }
+}
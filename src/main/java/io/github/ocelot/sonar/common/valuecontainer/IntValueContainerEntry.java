@@ -1,11 +1,15 @@
 package io.github.ocelot.sonar.common.valuecontainer;
 
 import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.network.PacketBuffer;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraftforge.common.util.Constants;
+import org.apache.commons.lang3.math.NumberUtils;
 
 /**
  * <p>A {@link NumberValueContainerEntry} that supports int data types.</p>
+ * <p>The value is stored as a primitive int, so editing the value with a slider or typing plain numbers does not create any objects. The value stored by {@link NumberValueContainerEntry} is not used,
+ * so subclasses must use {@link #getIntValue()} or {@link #setIntValue(int)}. {@link #getValue()} boxes the value on every call, so {@link #getIntValue()} should be preferred.</p>
  *
  * @author Ocelot
  * @since 2.1.0
@@ -13,6 +17,10 @@ import net.minecraftforge.common.util.Constants;
 public class IntValueContainerEntry extends NumberValueContainerEntry<Integer>
 {
     private final ITextComponent displayName;
+    private final int min;
+    private final int max;
+    private int previous;
+    private int current;
     private boolean bounds;
 
     public IntValueContainerEntry(ITextComponent displayName, String name, int value)
@@ -23,11 +31,20 @@ public class IntValueContainerEntry extends NumberValueContainerEntry<Integer>
 
     public IntValueContainerEntry(ITextComponent displayName, String name, int value, int minValue, int maxValue)
     {
-        super(name, value, minValue, maxValue);
+        super(name);
         this.displayName = displayName;
+        this.min = minValue;
+        this.max = maxValue;
+        this.previous = value;
+        this.current = value;
         this.bounds = true;
     }
 
+    private int clamp(int value)
+    {
+        return value < this.min ? this.min : value > this.max ? this.max : value;
+    }
+
     @Override
     protected Integer getValue(Number number)
     {
@@ -56,16 +73,137 @@ public class IntValueContainerEntry extends NumberValueContainerEntry<Integer>
         return displayName;
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public <E> E getValue()
+    {
+        return (E) Integer.valueOf(this.current);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <E> E getPreviousValue()
+    {
+        return (E) Integer.valueOf(this.previous);
+    }
+
+    @Override
+    protected void setValue(Integer value)
+    {
+        this.setIntValue(value);
+    }
+
+    @Override
+    public Integer getMinValue()
+    {
+        return this.min;
+    }
+
+    @Override
+    public Integer getMaxValue()
+    {
+        return this.max;
+    }
+
+    /**
+     * @return The current value of this entry
+     * @since 5.1.0
+     */
+    public int getIntValue()
+    {
+        return current;
+    }
+
+    /**
+     * Sets the value of this entry, clamped between the minimum and maximum values.
+     *
+     * @param value The new value
+     * @since 5.1.0
+     */
+    public void setIntValue(int value)
+    {
+        this.current = this.clamp(value);
+    }
+
+    @Override
+    public boolean isDirty()
+    {
+        return this.current != this.previous;
+    }
+
+    @Override
+    public void markClean()
+    {
+        this.previous = this.current;
+    }
+
+    @Override
+    public String getDisplay()
+    {
+        return String.valueOf(this.current);
+    }
+
+    @Override
+    public void parse(String data)
+    {
+        if (NumberParser.isPlainInteger(data))
+        {
+            long value = NumberParser.parseLong(data);
+            this.current = value < this.min ? this.min : value > this.max ? this.max : (int) value;
+            return;
+        }
+        this.current = this.clamp(NumberUtils.createNumber(data.trim()).intValue());
+    }
+
+    @Override
+    public double getSliderValue()
+    {
+        return this.current;
+    }
+
+    @Override
+    public double getMinSliderValue()
+    {
+        return this.min;
+    }
+
+    @Override
+    public double getMaxSliderValue()
+    {
+        return this.max;
+    }
+
+    @Override
+    public boolean setSliderValue(double value)
+    {
+        if (this.hasCustomValidator())
+            return false;
+        this.current = this.clamp((int) Math.round(value));
+        return true;
+    }
+
     @Override
     public void write(CompoundNBT nbt)
     {
-        nbt.putInt(this.getName(), this.value);
+        nbt.putInt(this.getName(), this.current);
     }
 
     @Override
     public void read(CompoundNBT nbt)
     {
-        this.value = nbt.contains(this.getName(), Constants.NBT.TAG_INT) ? nbt.getInt(this.getName()) : this.getPreviousValue();
+        this.current = nbt.contains(this.getName(), Constants.NBT.TAG_INT) ? nbt.getInt(this.getName()) : this.previous;
+    }
+
+    @Override
+    public void writeValue(PacketBuffer buf)
+    {
+        buf.writeVarInt(this.current);
+    }
+
+    @Override
+    public void readValue(PacketBuffer buf)
+    {
+        this.current = buf.readVarInt();
     }
 
     @Override
@@ -1,11 +1,15 @@
 package io.github.ocelot.sonar.common.valuecontainer;
 
 import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.network.PacketBuffer;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraftforge.common.util.Constants;
+import org.apache.commons.lang3.math.NumberUtils;
 
 /**
  * <p>A {@link NumberValueContainerEntry} that supports long data types.</p>
+ * <p>The value is stored as a primitive long, so editing the value with a slider or typing plain numbers does not create any objects. The value stored by {@link NumberValueContainerEntry} is not used,
+ * so subclasses must use {@link #getLongValue()} or {@link #setLongValue(long)}. {@link #getValue()} boxes the value on every call, so {@link #getLongValue()} should be preferred.</p>
  *
  * @author Ocelot
  * @since 2.1.0
@@ -13,6 +17,10 @@ import net.minecraftforge.common.util.Constants;
 public class LongValueContainerEntry extends NumberValueContainerEntry<Long>
 {
     private final ITextComponent displayName;
+    private final long min;
+    private final long max;
+    private long previous;
+    private long current;
     private boolean bounds;
 
     public LongValueContainerEntry(ITextComponent displayName, String name, long value)
@@ -23,11 +31,20 @@ public class LongValueContainerEntry extends NumberValueContainerEntry<Long>
 
     public LongValueContainerEntry(ITextComponent displayName, String name, long value, long minValue, long maxValue)
     {
-        super(name, value, minValue, maxValue);
+        super(name);
         this.displayName = displayName;
+        this.min = minValue;
+        this.max = maxValue;
+        this.previous = value;
+        this.current = value;
         this.bounds = true;
     }
 
+    private long clamp(long value)
+    {
+        return value < this.min ? this.min : value > this.max ? this.max : value;
+    }
+
     @Override
     protected Long getValue(Number number)
     {
@@ -56,16 +73,136 @@ public class LongValueContainerEntry extends NumberValueContainerEntry<Long>
         return displayName;
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public <E> E getValue()
+    {
+        return (E) Long.valueOf(this.current);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <E> E getPreviousValue()
+    {
+        return (E) Long.valueOf(this.previous);
+    }
+
+    @Override
+    protected void setValue(Long value)
+    {
+        this.setLongValue(value);
+    }
+
+    @Override
+    public Long getMinValue()
+    {
+        return this.min;
+    }
+
+    @Override
+    public Long getMaxValue()
+    {
+        return this.max;
+    }
+
+    /**
+     * @return The current value of this entry
+     * @since 5.1.0
+     */
+    public long getLongValue()
+    {
+        return current;
+    }
+
+    /**
+     * Sets the value of this entry, clamped between the minimum and maximum values.
+     *
+     * @param value The new value
+     * @since 5.1.0
+     */
+    public void setLongValue(long value)
+    {
+        this.current = this.clamp(value);
+    }
+
+    @Override
+    public boolean isDirty()
+    {
+        return this.current != this.previous;
+    }
+
+    @Override
+    public void markClean()
+    {
+        this.previous = this.current;
+    }
+
+    @Override
+    public String getDisplay()
+    {
+        return String.valueOf(this.current);
+    }
+
+    @Override
+    public void parse(String data)
+    {
+        if (NumberParser.isPlainInteger(data))
+        {
+            this.current = this.clamp(NumberParser.parseLong(data));
+            return;
+        }
+        this.current = this.clamp(NumberUtils.createNumber(data.trim()).longValue());
+    }
+
+    @Override
+    public double getSliderValue()
+    {
+        return this.current;
+    }
+
+    @Override
+    public double getMinSliderValue()
+    {
+        return this.min;
+    }
+
+    @Override
+    public double getMaxSliderValue()
+    {
+        return this.max;
+    }
+
+    @Override
+    public boolean setSliderValue(double value)
+    {
+        if (this.hasCustomValidator())
+            return false;
+        this.current = this.clamp(Math.round(value));
+        return true;
+    }
+
     @Override
     public void write(CompoundNBT nbt)
     {
-        nbt.putLong(this.getName(), this.value);
+        nbt.putLong(this.getName(), this.current);
     }
 
     @Override
     public void read(CompoundNBT nbt)
     {
-        this.value = nbt.contains(this.getName(), Constants.NBT.TAG_LONG) ? nbt.getLong(this.getName()) : this.getPreviousValue();
+        this.current = nbt.contains(this.getName(), Constants.NBT.TAG_LONG) ? nbt.getLong(this.getName()) : this.previous;
+    }
+
+    @Override
+    public void writeValue(PacketBuffer buf)
+    {
+        buf.writeVarLong(this.current);
+    }
+
+    @Override
+    public void readValue(PacketBuffer buf)
+    {
+        this.current = buf.readVarLong();
     }
 
     @Override
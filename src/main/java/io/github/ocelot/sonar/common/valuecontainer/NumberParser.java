@@ -0,0 +1,125 @@
+package io.github.ocelot.sonar.common.valuecontainer;
+
+/**
+ * <p>Parses simple numbers typed into value container screens without creating any objects. Anything more complex than plain base 10 numbers should be handled by {@link org.apache.commons.lang3.math.NumberUtils}.</p>
+ *
+ * @author Ocelot
+ * @since 5.1.0
+ */
+final class NumberParser
+{
+    private static final int MAX_LONG_DIGITS = 18;
+    private static final int MAX_EXACT_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private NumberParser()
+    {
+    }
+
+    /**
+     * Checks to see if the specified text is a plain integer that fits into a long. Leading and trailing whitespace is allowed.
+     *
+     * @param text The text to check
+     * @return Whether or not {@link #parseLong(String)} can parse the text
+     */
+    static boolean isPlainInteger(String text)
+    {
+        int start = skipWhitespace(text, 0);
+        int end = trimEnd(text, start);
+        if (start < end && (text.charAt(start) == '-' || text.charAt(start) == '+'))
+            start++;
+        if (start >= end || end - start > MAX_LONG_DIGITS)
+            return false;
+        for (int i = start; i < end; i++)
+            if (!isDigit(text.charAt(i)))
+                return false;
+        return true;
+    }
+
+    /**
+     * Parses a plain integer. Must only be called if {@link #isPlainInteger(String)} is <code>true</code>.
+     *
+     * @param text The text to parse
+     * @return The parsed number
+     */
+    static long parseLong(String text)
+    {
+        int start = skipWhitespace(text, 0);
+        int end = trimEnd(text, start);
+        boolean negative = text.charAt(start) == '-';
+        if (negative || text.charAt(start) == '+')
+            start++;
+
+        long value = 0;
+        for (int i = start; i < end; i++)
+            value = value * 10 + (text.charAt(i) - '0');
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses a plain decimal number such as <code>-12.375</code>. Only numbers that can be converted exactly are parsed, so the result is always the same as {@link Double#parseDouble(String)}.
+     *
+     * @param text The text to parse
+     * @return The parsed number or {@link Double#NaN} if the text is not a plain decimal number or cannot be parsed exactly
+     */
+    static double parseDouble(String text)
+    {
+        int start = skipWhitespace(text, 0);
+        int end = trimEnd(text, start);
+        boolean negative = start < end && text.charAt(start) == '-';
+        if (start < end && (negative || text.charAt(start) == '+'))
+            start++;
+        if (start >= end)
+            return Double.NaN;
+
+        long digits = 0;
+        int digitCount = 0;
+        int fractionDigits = 0;
+        boolean decimalPoint = false;
+        for (int i = start; i < end; i++)
+        {
+            char c = text.charAt(i);
+            if (c == '.')
+            {
+                if (decimalPoint)
+                    return Double.NaN;
+                decimalPoint = true;
+                continue;
+            }
+            if (!isDigit(c))
+                return Double.NaN;
+            if (digits != 0 || c != '0')
+                digitCount++;
+            if (digitCount > MAX_EXACT_DIGITS)
+                return Double.NaN;
+            digits = digits * 10 + (c - '0');
+            if (decimalPoint)
+                fractionDigits++;
+        }
+        if (end - start == (decimalPoint ? 1 : 0) || fractionDigits >= POWERS_OF_TEN.length)
+            return Double.NaN;
+
+        double value = fractionDigits == 0 ? digits : digits / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    private static boolean isDigit(char c)
+    {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int skipWhitespace(String text, int start)
+    {
+        while (start < text.length() && Character.isWhitespace(text.charAt(start)))
+            start++;
+        return start;
+    }
+
+    private static int trimEnd(String text, int start)
+    {
+        int end = text.length();
+        while (end > start && Character.isWhitespace(text.charAt(end - 1)))
+            end--;
+        return end;
+    }
+}
@@ -10,6 +10,9 @@ import java.util.function.Predicate;
 
 /**
  * <p>A {@link ValueContainerEntry} that supports standard {@link Number} type</p>
+ * <p>Values are stored boxed by default. Subclasses that store their own value instead should use {@link #NumberValueContainerEntry(String)} and override {@link #getValue()}, {@link #getPreviousValue()}, {@link #setValue(Number)},
+ * {@link #markClean()}, {@link #getMinValue()} and {@link #getMaxValue()}. All other methods in this class only use those methods.</p>
+ * <p>Since 5.1.0 the stored value is private, because entries that store their own value leave it unused. Subclasses must use {@link #getValue()} and {@link #setValue(Number)} instead of reading or writing the field.</p>
  *
  * @param <T> The type of number this entry is for
  * @author Ocelot
@@ -20,9 +23,10 @@ public abstract class NumberValueContainerEntry<T extends Number> implements Val
     private final String name;
     private final T minValue;
     private final T maxValue;
-    private final T previousValue;
-    protected T value;
+    private T previousValue;
+    private T value;
     private Predicate<String> validator;
+    private boolean customValidator;
     private boolean percentage;
 
     public NumberValueContainerEntry(String name, T value, T minValue, T maxValue)
@@ -35,6 +39,22 @@ public abstract class NumberValueContainerEntry<T extends Number> implements Val
         this.validator = createDefaultValidator(this);
     }
 
+    /**
+     * Creates an entry that does not use the boxed value storage of this class. The subclass is responsible for storing the value.
+     *
+     * @param name The name of the entry
+     * @since 5.1.0
+     */
+    protected NumberValueContainerEntry(String name)
+    {
+        this.name = name;
+        this.previousValue = null;
+        this.value = null;
+        this.minValue = null;
+        this.maxValue = null;
+        this.validator = createDefaultValidator(this);
+    }
+
     /**
      * Converts the provided number into this number type.
      *
@@ -94,6 +114,17 @@ public abstract class NumberValueContainerEntry<T extends Number> implements Val
         return (E) previousValue;
     }
 
+    /**
+     * Sets the current value of this entry. The value should already be clamped.
+     *
+     * @param value The new value
+     * @since 5.1.0
+     */
+    protected void setValue(T value)
+    {
+        this.value = value;
+    }
+
     @Override
     public InputType getInputType()
     {
@@ -103,19 +134,32 @@ public abstract class NumberValueContainerEntry<T extends Number> implements Val
     @Override
     public boolean isDirty()
     {
-        return !Objects.equals(this.value, this.previousValue);
+        return !Objects.equals(this.getValue(), this.getPreviousValue());
+    }
+
+    @Override
+    public void markClean()
+    {
+        this.previousValue = this.value;
+    }
+
+    @Override
+    public boolean isInBounds()
+    {
+        double value = this.getSliderValue();
+        return value >= this.getMinSliderValue() && value <= this.getMaxSliderValue();
     }
 
     @Override
     public String getDisplay()
     {
-        return String.valueOf(this.value);
+        return String.valueOf(this.<Object>getValue());
     }
 
     @Override
     public void parse(String data)
     {
-        this.value = this.clamp(this.getValue(NumberUtils.createNumber(data.trim())), this.minValue, this.maxValue);
+        this.setValue(this.clamp(this.getValue(NumberUtils.createNumber(data.trim())), this.getMinValue(), this.getMaxValue()));
     }
 
     @Override
@@ -167,9 +211,19 @@ public abstract class NumberValueContainerEntry<T extends Number> implements Val
     public NumberValueContainerEntry<T> setValidator(@Nullable Predicate<String> validator)
     {
         this.validator = validator;
+        this.customValidator = true;
         return this;
     }
 
+    /**
+     * @return Whether or not the validator has been changed from the default. If it has not, any number in range is valid
+     * @since 5.1.0
+     */
+    protected boolean hasCustomValidator()
+    {
+        return customValidator;
+    }
+
     /**
      * Generates the default validator for the specified {@link NumberValueContainerEntry}.
      *
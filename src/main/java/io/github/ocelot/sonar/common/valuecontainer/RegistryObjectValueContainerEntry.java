@@ -1,6 +1,7 @@
 package io.github.ocelot.sonar.common.valuecontainer;
 
 import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.network.PacketBuffer;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraftforge.common.util.Constants;
@@ -23,7 +24,7 @@ public class RegistryObjectValueContainerEntry<T extends IForgeRegistryEntry<T>>
     private final ITextComponent displayName;
     private final String name;
     private final IForgeRegistry<T> registry;
-    private final T previousValue;
+    private T previousValue;
     private T value;
     private Predicate<String> validator;
 
@@ -75,6 +76,18 @@ public class RegistryObjectValueContainerEntry<T extends IForgeRegistryEntry<T>>
         return !this.value.equals(this.previousValue);
     }
 
+    @Override
+    public void markClean()
+    {
+        this.previousValue = this.value;
+    }
+
+    @Override
+    public boolean isInBounds()
+    {
+        return this.value != null;
+    }
+
     @Override
     public String getDisplay()
     {
@@ -93,6 +106,18 @@ public class RegistryObjectValueContainerEntry<T extends IForgeRegistryEntry<T>>
         this.value = nbt.contains(this.getName(), Constants.NBT.TAG_STRING) ? this.registry.getValue(new ResourceLocation(nbt.getString(this.getName()))) : this.previousValue;
     }
 
+    @Override
+    public void writeValue(PacketBuffer buf)
+    {
+        buf.writeResourceLocation(Objects.requireNonNull(this.value.getRegistryName()));
+    }
+
+    @Override
+    public void readValue(PacketBuffer buf)
+    {
+        this.value = this.registry.getValue(buf.readResourceLocation());
+    }
+
     @Override
     public void parse(String data)
     {
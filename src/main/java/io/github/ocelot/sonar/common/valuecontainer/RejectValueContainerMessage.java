@@ -0,0 +1,85 @@
+package io.github.ocelot.sonar.common.valuecontainer;
+
+import io.github.ocelot.sonar.common.network.message.SonarMessage;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+import net.minecraftforge.fml.network.NetworkEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>A pre-built message that tells the client why changes sent with {@link SyncValueContainerMessage} were not applied.</p>
+ *
+ * @author Ocelot
+ * @see ValueContainerTransaction
+ * @since 5.1.0
+ */
+public class RejectValueContainerMessage implements SonarMessage<IValueContainerClientHandler>
+{
+    /**
+     * The maximum number of errors that are sent to the client.
+     */
+    public static final int MAX_ERRORS = 64;
+
+    private BlockPos pos;
+    private List<ValueContainerError> errors;
+
+    public RejectValueContainerMessage()
+    {
+    }
+
+    public RejectValueContainerMessage(BlockPos pos, List<ValueContainerError> errors)
+    {
+        this.pos = pos;
+        this.errors = errors.size() > MAX_ERRORS ? errors.subList(0, MAX_ERRORS) : errors;
+    }
+
+    @Override
+    public void readPacketData(PacketBuffer buf)
+    {
+        this.pos = buf.readBlockPos();
+        int size = buf.readVarInt();
+        if (size < 0 || size > MAX_ERRORS)
+            throw new IllegalStateException("Invalid number of errors: " + size);
+        this.errors = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            this.errors.add(ValueContainerError.read(buf));
+    }
+
+    @Override
+    public void writePacketData(PacketBuffer buf)
+    {
+        buf.writeBlockPos(this.pos);
+        buf.writeVarInt(this.errors.size());
+        for (ValueContainerError error : this.errors)
+            error.write(buf);
+    }
+
+    @Override
+    public void processPacket(IValueContainerClientHandler handler, NetworkEvent.Context ctx)
+    {
+        handler.handleRejectValueContainerMessage(this, ctx);
+    }
+
+    /**
+     * @return The position of the container
+     */
+    @OnlyIn(Dist.CLIENT)
+    public BlockPos getPos()
+    {
+        return pos;
+    }
+
+    /**
+     * @return The reasons the changes were rejected
+     */
+    @OnlyIn(Dist.CLIENT)
+    public List<ValueContainerError> getErrors()
+    {
+        return Collections.unmodifiableList(errors);
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.ocelot.sonar.common.valuecontainer;
 
 import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.network.PacketBuffer;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraftforge.common.util.Constants;
@@ -19,7 +20,7 @@ public class ResourceLocationValueContainerEntry implements ValueContainerEntry<
 {
     private final ITextComponent displayName;
     private final String name;
-    private final ResourceLocation previousValue;
+    private ResourceLocation previousValue;
     private ResourceLocation value;
     private Predicate<String> validator;
 
@@ -70,6 +71,12 @@ public class ResourceLocationValueContainerEntry implements ValueContainerEntry<
         return !this.value.equals(this.previousValue);
     }
 
+    @Override
+    public void markClean()
+    {
+        this.previousValue = this.value;
+    }
+
     @Override
     public String getDisplay()
     {
@@ -88,6 +95,18 @@ public class ResourceLocationValueContainerEntry implements ValueContainerEntry<
         this.value = nbt.contains(this.getName(), Constants.NBT.TAG_STRING) ? new ResourceLocation(nbt.getString(this.getName())) : this.previousValue;
     }
 
+    @Override
+    public void writeValue(PacketBuffer buf)
+    {
+        buf.writeResourceLocation(this.value);
+    }
+
+    @Override
+    public void readValue(PacketBuffer buf)
+    {
+        this.value = buf.readResourceLocation();
+    }
+
     @Override
     public void parse(String data)
     {
@@ -1,6 +1,7 @@
 package io.github.ocelot.sonar.common.valuecontainer;
 
 import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.network.PacketBuffer;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraftforge.common.util.Constants;
 
@@ -59,13 +60,25 @@ public class ShortValueContainerEntry extends NumberValueContainerEntry<Short>
     @Override
     public void write(CompoundNBT nbt)
     {
-        nbt.putShort(this.getName(), this.value);
+        nbt.putShort(this.getName(), this.<Short>getValue());
     }
 
     @Override
     public void read(CompoundNBT nbt)
     {
-        this.value = nbt.contains(this.getName(), Constants.NBT.TAG_SHORT) ? nbt.getShort(this.getName()) : this.getPreviousValue();
+        this.setValue(nbt.contains(this.getName(), Constants.NBT.TAG_SHORT) ? nbt.getShort(this.getName()) : this.<Short>getPreviousValue());
+    }
+
+    @Override
+    public void writeValue(PacketBuffer buf)
+    {
+        buf.writeShort(this.<Short>getValue());
+    }
+
+    @Override
+    public void readValue(PacketBuffer buf)
+    {
+        this.setValue(buf.readShort());
     }
 
     @Override
@@ -32,4 +32,16 @@ public interface SliderEntry
      * @return Whether or not to show decimal values on the slider when not showing a percentage
      */
     boolean isDecimal();
+
+    /**
+     * Sets the value of this entry directly from a slider, without converting the value to text and parsing it.
+     *
+     * @param value The new slider value
+     * @return Whether or not the value was set. If this returns <code>false</code>, the value is parsed as text instead
+     * @since 5.1.0
+     */
+    default boolean setSliderValue(double value)
+    {
+        return false;
+    }
 }
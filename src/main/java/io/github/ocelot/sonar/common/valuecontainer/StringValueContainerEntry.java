@@ -1,6 +1,7 @@
 package io.github.ocelot.sonar.common.valuecontainer;
 
 import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.network.PacketBuffer;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraftforge.common.util.Constants;
 
@@ -18,7 +19,7 @@ public class StringValueContainerEntry implements ValueContainerEntry<String>
 {
     private final ITextComponent displayName;
     private final String name;
-    private final String previousValue;
+    private String previousValue;
     private String value;
     private Predicate<String> validator;
 
@@ -69,6 +70,12 @@ public class StringValueContainerEntry implements ValueContainerEntry<String>
         return !this.value.equals(this.previousValue);
     }
 
+    @Override
+    public void markClean()
+    {
+        this.previousValue = this.value;
+    }
+
     @Override
     public String getDisplay()
     {
@@ -87,6 +94,18 @@ public class StringValueContainerEntry implements ValueContainerEntry<String>
         this.value = nbt.contains(this.getName(), Constants.NBT.TAG_STRING) ? nbt.getString(this.getName()) : this.previousValue;
     }
 
+    @Override
+    public void writeValue(PacketBuffer buf)
+    {
+        buf.writeString(this.value);
+    }
+
+    @Override
+    public void readValue(PacketBuffer buf)
+    {
+        this.value = buf.readString(32767);
+    }
+
     @Override
     public void parse(String data)
     {
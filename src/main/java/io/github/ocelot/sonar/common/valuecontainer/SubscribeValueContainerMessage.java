@@ -0,0 +1,65 @@
+package io.github.ocelot.sonar.common.valuecontainer;
+
+import io.github.ocelot.sonar.common.network.message.SonarMessage;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraftforge.fml.network.NetworkEvent;
+
+/**
+ * <p>A pre-built message that tells the server to start or stop sending {@link UpdateValueContainerMessage} for a {@link ValueContainer} while its screen is open.</p>
+ *
+ * @author Ocelot
+ * @see ValueContainerStreamer
+ * @since 5.1.0
+ */
+public class SubscribeValueContainerMessage implements SonarMessage<IValueContainerServerHandler>
+{
+    private BlockPos pos;
+    private boolean subscribe;
+
+    public SubscribeValueContainerMessage()
+    {
+    }
+
+    public SubscribeValueContainerMessage(BlockPos pos, boolean subscribe)
+    {
+        this.pos = pos;
+        this.subscribe = subscribe;
+    }
+
+    @Override
+    public void readPacketData(PacketBuffer buf)
+    {
+        this.pos = buf.readBlockPos();
+        this.subscribe = buf.readBoolean();
+    }
+
+    @Override
+    public void writePacketData(PacketBuffer buf)
+    {
+        buf.writeBlockPos(this.pos);
+        buf.writeBoolean(this.subscribe);
+    }
+
+    @Override
+    public void processPacket(IValueContainerServerHandler handler, NetworkEvent.Context ctx)
+    {
+        handler.handleSubscribeValueContainerMessage(this, ctx);
+    }
+
+    /**
+     * @return The position of the container
+     */
+    public BlockPos getPos()
+    {
+        return pos;
+    }
+
+    /**
+     * @return Whether to start or stop receiving updates
+     */
+    public boolean isSubscribe()
+    {
+        return subscribe;
+    }
+}
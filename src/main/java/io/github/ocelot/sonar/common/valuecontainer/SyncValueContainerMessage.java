@@ -1,11 +1,16 @@
 package io.github.ocelot.sonar.common.valuecontainer;
 
 import io.github.ocelot.sonar.common.network.message.SonarMessage;
+import io.netty.buffer.Unpooled;
 import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.network.PacketBuffer;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
 import net.minecraftforge.fml.network.NetworkEvent;
 
+import javax.annotation.Nullable;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -18,16 +23,31 @@ public class SyncValueContainerMessage implements SonarMessage<IValueContainerSe
 {
     private BlockPos pos;
     private CompoundNBT data;
+    private List<ValueContainerEntry<?>> entries;
+    private BitSet indices;
+    private byte[] payload;
 
     public SyncValueContainerMessage()
     {
     }
 
+    /**
+     * Creates a message that sends the dirty entries. The entries are written directly into the packet when it is sent, so their values should not be changed until then.
+     *
+     * @param pos     The position of the container
+     * @param entries The entries to send
+     */
     public SyncValueContainerMessage(BlockPos pos, List<ValueContainerEntry<?>> entries)
     {
-        this(pos, ValueContainer.serialize(entries));
+        this.pos = pos;
+        this.entries = entries;
+        this.indices = ValueContainer.getDirtyEntries(entries);
     }
 
+    /**
+     * @deprecated Use {@link #SyncValueContainerMessage(BlockPos, List)} to send entries using the compact binary format
+     */
+    @Deprecated
     public SyncValueContainerMessage(BlockPos pos, CompoundNBT data)
     {
         this.pos = pos;
@@ -38,14 +58,34 @@ public class SyncValueContainerMessage implements SonarMessage<IValueContainerSe
     public void readPacketData(PacketBuffer buf)
     {
         this.pos = buf.readBlockPos();
-        this.data = buf.readCompoundTag();
+        if (buf.readBoolean())
+        {
+            this.payload = new byte[buf.readableBytes()];
+            buf.readBytes(this.payload);
+        }
+        else
+        {
+            this.data = buf.readCompoundTag();
+        }
     }
 
     @Override
     public void writePacketData(PacketBuffer buf)
     {
         buf.writeBlockPos(this.pos);
-        buf.writeCompoundTag(this.data);
+        buf.writeBoolean(this.data == null);
+        if (this.entries != null)
+        {
+            ValueContainer.serialize(this.entries, this.indices, buf);
+        }
+        else if (this.payload != null)
+        {
+            buf.writeBytes(this.payload);
+        }
+        else
+        {
+            buf.writeCompoundTag(this.data);
+        }
     }
 
     @Override
@@ -54,6 +94,39 @@ public class SyncValueContainerMessage implements SonarMessage<IValueContainerSe
         handler.handleSyncValueContainerMessage(this, ctx);
     }
 
+    /**
+     * Validates and applies the data in this message to the specified container. The container is only modified if all of the data is valid.
+     *
+     * @param world     The world the container is in
+     * @param container The container to apply the data to
+     * @return All problems found with the data. If empty, the data was applied
+     * @since 5.1.0
+     */
+    public List<ValueContainerError> apply(World world, ValueContainer container)
+    {
+        if (this.data != null)
+            return ValueContainer.apply(world, this.pos, container, this.data);
+        byte[] payload = this.getPayload();
+        if (payload != null)
+            return ValueContainer.apply(world, this.pos, container, new PacketBuffer(Unpooled.wrappedBuffer(payload)));
+        return Collections.emptyList();
+    }
+
+    /**
+     * Reads the data in this message into the specified container.
+     *
+     * @param world     The world the container is in
+     * @param container The container to read into
+     * @throws IllegalStateException If the data is not valid for the container
+     * @since 5.1.0
+     */
+    public void deserialize(World world, ValueContainer container)
+    {
+        List<ValueContainerError> errors = this.apply(world, container);
+        if (!errors.isEmpty())
+            throw new IllegalStateException("Failed to deserialize value container at '" + this.pos + "': " + errors);
+    }
+
     /**
      * @return The position of the container
      */
@@ -63,10 +136,25 @@ public class SyncValueContainerMessage implements SonarMessage<IValueContainerSe
     }
 
     /**
-     * @return The tag full of container data
+     * @return The tag full of container data or null if this message uses the binary format
+     * @deprecated Use {@link #apply(World, ValueContainer)} to read data from either format
      */
+    @Nullable
+    @Deprecated
     public CompoundNBT getData()
     {
         return data;
     }
+
+    /**
+     * @return The binary container data written by {@link ValueContainer#serialize(List, PacketBuffer)} or null if this message uses NBT
+     * @since 5.1.0
+     */
+    @Nullable
+    public byte[] getPayload()
+    {
+        if (this.payload == null && this.entries != null)
+            this.payload = ValueContainer.serializeBytes(this.entries, this.indices);
+        return payload;
+    }
 }
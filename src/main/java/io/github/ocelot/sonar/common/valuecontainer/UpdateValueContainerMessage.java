@@ -0,0 +1,93 @@
+package io.github.ocelot.sonar.common.valuecontainer;
+
+import io.github.ocelot.sonar.common.network.message.SonarMessage;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+import net.minecraftforge.fml.network.NetworkEvent;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * <p>A pre-built message that sends the values of a {@link ValueContainer} that changed on the server to a client with the container screen open.</p>
+ *
+ * @author Ocelot
+ * @see ValueContainerStreamer
+ * @since 5.1.0
+ */
+public class UpdateValueContainerMessage implements SonarMessage<IValueContainerClientHandler>
+{
+    private BlockPos pos;
+    private List<ValueContainerEntry<?>> entries;
+    private BitSet indices;
+    private byte[] payload;
+
+    public UpdateValueContainerMessage()
+    {
+    }
+
+    /**
+     * Creates a message that sends the specified entries. The entries are written directly into the packet when it is sent, so their values should not be changed until then.
+     *
+     * @param pos     The position of the container
+     * @param entries The entries of the container
+     * @param indices The indices of the entries to send
+     */
+    public UpdateValueContainerMessage(BlockPos pos, List<ValueContainerEntry<?>> entries, BitSet indices)
+    {
+        this.pos = pos;
+        this.entries = entries;
+        this.indices = indices;
+    }
+
+    @Override
+    public void readPacketData(PacketBuffer buf)
+    {
+        this.pos = buf.readBlockPos();
+        this.payload = new byte[buf.readableBytes()];
+        buf.readBytes(this.payload);
+    }
+
+    @Override
+    public void writePacketData(PacketBuffer buf)
+    {
+        buf.writeBlockPos(this.pos);
+        if (this.entries != null)
+        {
+            ValueContainer.serialize(this.entries, this.indices, buf);
+        }
+        else
+        {
+            buf.writeBytes(this.payload);
+        }
+    }
+
+    @Override
+    public void processPacket(IValueContainerClientHandler handler, NetworkEvent.Context ctx)
+    {
+        handler.handleUpdateValueContainerMessage(this, ctx);
+    }
+
+    /**
+     * @return The position of the container
+     */
+    @OnlyIn(Dist.CLIENT)
+    public BlockPos getPos()
+    {
+        return pos;
+    }
+
+    /**
+     * @return A buffer containing the changed values written by {@link ValueContainer#serialize(List, BitSet, PacketBuffer)}
+     */
+    @OnlyIn(Dist.CLIENT)
+    public PacketBuffer getPayload()
+    {
+        if (this.payload == null)
+            this.payload = ValueContainer.serializeBytes(this.entries, this.indices);
+        return new PacketBuffer(Unpooled.wrappedBuffer(this.payload));
+    }
+}
@@ -1,15 +1,23 @@
 package io.github.ocelot.sonar.common.valuecontainer;
 
+import io.netty.buffer.Unpooled;
+import net.minecraft.block.Block;
 import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.nbt.ListNBT;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.text.ITextComponent;
+import net.minecraft.world.IBlockReader;
 import net.minecraft.world.World;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.api.distmarker.OnlyIn;
-import net.minecraftforge.common.util.Constants;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
+import javax.annotation.Nullable;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * <p>Specifies this block has special parameters that can be modified by clients.</p>
@@ -22,6 +30,8 @@ import java.util.*;
  */
 public interface ValueContainer
 {
+    Logger LOGGER = LogManager.getLogger();
+
     /**
      * Fills the specified list with the required entries.
      *
@@ -54,6 +64,36 @@ public interface ValueContainer
         return entries;
     }
 
+    /**
+     * Checks to see if every instance of this container always provides entries with the same names and types in the same order.
+     * If it does, the {@link ValueContainerSchema} for this container is created once and reused without comparing each entry every time values are synced or saved.
+     *
+     * @return Whether or not the entries of this container never change
+     * @since 5.1.0
+     */
+    default boolean hasFixedEntries()
+    {
+        return false;
+    }
+
+    /**
+     * Fetches the value container at the specified position. The tile entity is checked first, then the block.
+     *
+     * @param world The world to check in
+     * @param pos   The position of the container
+     * @return The container at that position or null if there is no value container there
+     * @since 5.1.0
+     */
+    @Nullable
+    static ValueContainer get(IBlockReader world, BlockPos pos)
+    {
+        TileEntity te = world.getTileEntity(pos);
+        if (te instanceof ValueContainer)
+            return (ValueContainer) te;
+        Block block = world.getBlockState(pos).getBlock();
+        return block instanceof ValueContainer ? (ValueContainer) block : null;
+    }
+
     /**
      * Fetches the title of this container.
      *
@@ -93,7 +133,7 @@ public interface ValueContainer
             }
             catch (Exception e)
             {
-                e.printStackTrace();
+                LOGGER.error("Failed to serialize value container entry '" + valueContainerEntry.getName() + "'", e);
             }
         });
         nbt.put("entries", entriesNbt);
@@ -102,38 +142,171 @@ public interface ValueContainer
     }
 
     /**
-     * Deserializes the specified container from NBT.
+     * Deserializes the specified container from NBT. If any of the data is invalid, the container is not modified.
      *
      * @param container The container to deserialize
      * @param nbt       The tag full of data
      */
     static void deserialize(World world, BlockPos pos, ValueContainer container, CompoundNBT nbt)
     {
-        Map<String, ValueContainerEntry<?>> entries = new HashMap<>();
-        container.getEntries(world, pos).forEach(valueContainerEntry -> entries.put(valueContainerEntry.getName(), valueContainerEntry));
+        List<ValueContainerError> errors = apply(world, pos, container, nbt);
+        if (!errors.isEmpty())
+            LOGGER.error("Failed to deserialize value container at '" + pos + "': " + errors);
+    }
+
+    /**
+     * Serializes the dirty container entries into a compact binary form. Entries are identified by their index in the provided list, so the receiver must produce the entries in the same order.
+     *
+     * @param entries The entries to serialize
+     * @param buf     The buffer to write into
+     * @since 5.1.0
+     */
+    static void serialize(List<ValueContainerEntry<?>> entries, PacketBuffer buf)
+    {
+        serialize(entries, getDirtyEntries(entries), buf);
+    }
 
-        Map<String, ValueContainerEntry<?>> deserializedEntries = new HashMap<>();
+    /**
+     * Finds the indices of all entries that are dirty.
+     *
+     * @param entries The entries to check
+     * @return A set of the indices of the dirty entries
+     * @since 5.1.0
+     */
+    static BitSet getDirtyEntries(List<ValueContainerEntry<?>> entries)
+    {
+        BitSet dirtyEntries = new BitSet(entries.size());
+        for (int i = 0; i < entries.size(); i++)
+            if (entries.get(i).isDirty())
+                dirtyEntries.set(i);
+        return dirtyEntries;
+    }
 
-        ListNBT entriesNbt = nbt.getList("entries", Constants.NBT.TAG_COMPOUND);
-        for (int i = 0; i < entriesNbt.size(); i++)
+    /**
+     * Serializes the specified container entries into a compact binary form, regardless of whether or not they are dirty.
+     *
+     * @param entries The entries to serialize
+     * @param indices The indices of the entries to write
+     * @param buf     The buffer to write into
+     * @since 5.1.0
+     */
+    static void serialize(List<ValueContainerEntry<?>> entries, BitSet indices, PacketBuffer buf)
+    {
+        buf.writeInt(getSchemaHash(entries));
+        for (int i = indices.nextSetBit(0); i >= 0 && i < entries.size(); i = indices.nextSetBit(i + 1))
         {
-            CompoundNBT valueContainerEntryNbt = entriesNbt.getCompound(i);
-            String name = valueContainerEntryNbt.getString("name");
+            ValueContainerEntry<?> valueContainerEntry = entries.get(i);
+            int start = buf.writerIndex();
             try
             {
-                if (!entries.containsKey(name))
-                    throw new IllegalStateException("Expected to deserialize '" + name + "', but it is not a valid property!");
-
-                ValueContainerEntry<?> valueContainerEntry = entries.get(name);
-                valueContainerEntry.read(valueContainerEntryNbt.getCompound("data"));
-                deserializedEntries.put(valueContainerEntry.getName(), valueContainerEntry);
+                buf.writeVarInt(i + 1);
+                valueContainerEntry.writeValue(buf);
             }
             catch (Exception e)
             {
-                e.printStackTrace();
+                buf.writerIndex(start);
+                LOGGER.error("Failed to serialize value container entry '" + valueContainerEntry.getName() + "'", e);
             }
         }
-        if (!deserializedEntries.isEmpty())
-            container.readEntries(world, pos, deserializedEntries);
+        buf.writeVarInt(0);
+    }
+
+    /**
+     * Serializes the specified container entries into a new array using {@link #serialize(List, BitSet, PacketBuffer)}.
+     * This should only be used when the data must be kept after the entries change. Messages should serialize directly into the outgoing buffer instead.
+     *
+     * @param entries The entries to serialize
+     * @param indices The indices of the entries to write
+     * @return The serialized data
+     * @since 5.1.0
+     */
+    static byte[] serializeBytes(List<ValueContainerEntry<?>> entries, BitSet indices)
+    {
+        return toByteArray(buf -> serialize(entries, indices, buf));
+    }
+
+    /**
+     * Writes data into a temporary buffer and copies the written bytes into an array.
+     *
+     * @param writer The function writing the data
+     * @return The written data
+     * @since 5.1.0
+     */
+    static byte[] toByteArray(Consumer<PacketBuffer> writer)
+    {
+        PacketBuffer buf = new PacketBuffer(Unpooled.buffer());
+        try
+        {
+            writer.accept(buf);
+            byte[] data = new byte[buf.readableBytes()];
+            buf.readBytes(data);
+            return data;
+        }
+        finally
+        {
+            buf.release();
+        }
+    }
+
+    /**
+     * Deserializes the specified container from data written by {@link #serialize(List, PacketBuffer)}. No entries are read into the container if any part of the data is invalid.
+     *
+     * @param container The container to deserialize
+     * @param buf       The buffer full of data
+     * @throws IllegalStateException If the data was written for a different set of entries or is malformed
+     * @since 5.1.0
+     */
+    static void deserialize(World world, BlockPos pos, ValueContainer container, PacketBuffer buf)
+    {
+        List<ValueContainerError> errors = apply(world, pos, container, buf);
+        if (!errors.isEmpty())
+            throw new IllegalStateException("Failed to deserialize value container at '" + pos + "': " + errors);
+    }
+
+    /**
+     * Validates and applies data written by {@link #serialize(List, PacketBuffer)} to the specified container. The container is only modified if all of the data is valid.
+     *
+     * @param container The container to apply the data to
+     * @param buf       The buffer full of data
+     * @return All problems found with the data. If empty, the data was applied
+     * @see ValueContainerTransaction
+     * @since 5.1.0
+     */
+    static List<ValueContainerError> apply(World world, BlockPos pos, ValueContainer container, PacketBuffer buf)
+    {
+        ValueContainerTransaction transaction = new ValueContainerTransaction(world, pos, container).read(buf);
+        transaction.commit();
+        return transaction.getErrors();
+    }
+
+    /**
+     * Validates and applies data written by {@link #serialize(List)} to the specified container. The container is only modified if all of the data is valid.
+     *
+     * @param container The container to apply the data to
+     * @param nbt       The tag full of data
+     * @return All problems found with the data. If empty, the data was applied
+     * @see ValueContainerTransaction
+     * @since 5.1.0
+     */
+    static List<ValueContainerError> apply(World world, BlockPos pos, ValueContainer container, CompoundNBT nbt)
+    {
+        ValueContainerTransaction transaction = new ValueContainerTransaction(world, pos, container).read(nbt);
+        transaction.commit();
+        return transaction.getErrors();
+    }
+
+    /**
+     * Calculates a hash of the names and order of the specified entries. Used to make sure binary data is read using the same entries it was written with.
+     *
+     * @param entries The entries to hash
+     * @return A hash of the entry names
+     * @since 5.1.0
+     */
+    static int getSchemaHash(List<ValueContainerEntry<?>> entries)
+    {
+        int hash = 1;
+        for (ValueContainerEntry<?> entry : entries)
+            hash = 31 * hash + entry.getName().hashCode();
+        return hash;
     }
 }
@@ -0,0 +1,232 @@
+package io.github.ocelot.sonar.common.valuecontainer;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.fml.event.server.FMLServerStoppedEvent;
+import net.minecraftforge.fml.network.PacketDistributor;
+import net.minecraftforge.fml.network.simple.SimpleChannel;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * <p>Applies {@link BulkSyncValueContainerMessage} to many containers on the server.</p>
+ * <p>Edits are queued and applied at the end of each server tick until the time budget for that tick is used up, so large edits are spread over several ticks instead of stalling the server.
+ * Once all positions have been visited, a {@link BulkValueContainerResultMessage} is sent to the player that requested the edit.</p>
+ * <p>Edits that have not finished when the server stops are completed with the results so far and positions that were not visited yet are dropped.</p>
+ * <p>If a {@link ValueContainerJournal} is provided, every container is changed through {@link ValueContainerJournal#record(World, BlockPos, ValueContainer, UUID, Supplier)} exactly like a single {@link SyncValueContainerMessage}, so bulk edits can be undone.</p>
+ *
+ * @author Ocelot
+ * @since 5.1.0
+ */
+public class ValueContainerBulkEditor
+{
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final InstanceEventListeners<ValueContainerBulkEditor> LISTENERS = new InstanceEventListeners<>();
+
+    static
+    {
+        LISTENERS.addListener(TickEvent.ServerTickEvent.class, ValueContainerBulkEditor::onServerTick);
+        LISTENERS.addListener(FMLServerStoppedEvent.class, ValueContainerBulkEditor::onServerStopped);
+    }
+
+    private final SimpleChannel channel;
+    private final long budgetNanos;
+    private final Deque<Job> jobs;
+
+    public ValueContainerBulkEditor(SimpleChannel channel)
+    {
+        this(channel, 5, TimeUnit.MILLISECONDS);
+    }
+
+    public ValueContainerBulkEditor(SimpleChannel channel, long budget, TimeUnit unit)
+    {
+        if (budget <= 0)
+            throw new IllegalArgumentException("Budget must be greater than 0");
+        this.channel = channel;
+        this.budgetNanos = unit.toNanos(budget);
+        this.jobs = new ArrayDeque<>();
+        LISTENERS.add(this);
+    }
+
+    private void onServerTick(TickEvent.ServerTickEvent event)
+    {
+        if (event.phase != TickEvent.Phase.END || this.jobs.isEmpty())
+            return;
+
+        long deadline = System.nanoTime() + this.budgetNanos;
+        while (!this.jobs.isEmpty() && System.nanoTime() < deadline)
+        {
+            Job job = this.jobs.peek();
+            if (!job.step())
+            {
+                this.jobs.poll();
+                job.complete();
+            }
+        }
+    }
+
+    private void onServerStopped(FMLServerStoppedEvent event)
+    {
+        Job job;
+        while ((job = this.jobs.poll()) != null)
+            job.cancel();
+    }
+
+    /**
+     * Queues the specified message to be applied in the world of the specified player.
+     *
+     * @param player  The player that requested the edit
+     * @param msg     The message containing the positions and data
+     * @param journal The journal to record each change in or null to not record changes
+     * @return A future that will be completed once all positions have been visited
+     */
+    public CompletableFuture<Result> submit(ServerPlayerEntity player, BulkSyncValueContainerMessage msg, @Nullable ValueContainerJournal journal)
+    {
+        if (msg.isRegion())
+            return this.submit(player, BlockPos.getAllInBoxMutable(Objects.requireNonNull(msg.getFrom()), Objects.requireNonNull(msg.getTo())).iterator(), true, msg.getPayload(), journal);
+        return this.submit(player, Arrays.asList(Objects.requireNonNull(msg.getPositions())).iterator(), false, msg.getPayload(), journal);
+    }
+
+    /**
+     * Queues the specified data to be applied to all positions in the world of the specified player.
+     *
+     * @param player      The player that requested the edit
+     * @param positions   The positions to apply data to. Positions may be mutable
+     * @param skipMissing Whether or not positions that are not value containers should be skipped instead of counted as failed
+     * @param payload     The binary container data written by {@link ValueContainer#serialize(List, PacketBuffer)}
+     * @param journal     The journal to record each change in or null to not record changes
+     * @return A future that will be completed once all positions have been visited
+     */
+    public CompletableFuture<Result> submit(ServerPlayerEntity player, Iterator<BlockPos> positions, boolean skipMissing, byte[] payload, @Nullable ValueContainerJournal journal)
+    {
+        Job job = new Job(player, positions, skipMissing, payload, journal);
+        this.jobs.add(job);
+        return job.future;
+    }
+
+    /**
+     * @return The number of edits that have not finished yet
+     */
+    public int getPendingJobs()
+    {
+        return this.jobs.size();
+    }
+
+    private class Job
+    {
+        private final ServerPlayerEntity player;
+        private final World world;
+        private final Iterator<BlockPos> positions;
+        private final boolean skipMissing;
+        private final byte[] payload;
+        private final ValueContainerJournal journal;
+        private final List<BlockPos> failed;
+        private final CompletableFuture<Result> future;
+        private int applied;
+
+        private Job(ServerPlayerEntity player, Iterator<BlockPos> positions, boolean skipMissing, byte[] payload, @Nullable ValueContainerJournal journal)
+        {
+            this.player = player;
+            this.world = player.world;
+            this.positions = positions;
+            this.skipMissing = skipMissing;
+            this.payload = payload;
+            this.journal = journal;
+            this.failed = new ArrayList<>();
+            this.future = new CompletableFuture<>();
+        }
+
+        private boolean step()
+        {
+            if (!this.positions.hasNext())
+                return false;
+
+            BlockPos pos = this.positions.next();
+            if (!this.world.isBlockLoaded(pos))
+            {
+                if (!this.skipMissing)
+                    this.failed.add(pos.toImmutable());
+                return true;
+            }
+
+            ValueContainer container = ValueContainer.get(this.world, pos);
+            if (container == null)
+            {
+                if (!this.skipMissing)
+                    this.failed.add(pos.toImmutable());
+                return true;
+            }
+
+            BlockPos immutablePos = pos.toImmutable();
+            Supplier<List<ValueContainerError>> change = () -> ValueContainer.apply(this.world, immutablePos, container, new PacketBuffer(Unpooled.wrappedBuffer(this.payload)));
+            List<ValueContainerError> errors = this.journal != null ? this.journal.record(this.world, immutablePos, container, this.player.getUniqueID(), change) : change.get();
+            if (errors.isEmpty())
+            {
+                this.applied++;
+            }
+            else
+            {
+                LOGGER.debug("Failed to apply bulk edit to value container at '" + pos + "': " + errors);
+                this.failed.add(immutablePos);
+            }
+            return true;
+        }
+
+        private void complete()
+        {
+            Result result = new Result(this.applied, this.failed);
+            if (!this.player.removed)
+                channel.send(PacketDistributor.PLAYER.with(() -> this.player), new BulkValueContainerResultMessage(result));
+            this.future.complete(result);
+        }
+
+        private void cancel()
+        {
+            this.future.complete(new Result(this.applied, this.failed));
+        }
+    }
+
+    /**
+     * <p>The outcome of a bulk edit.</p>
+     *
+     * @author Ocelot
+     * @since 5.1.0
+     */
+    public static class Result
+    {
+        private final int applied;
+        private final List<BlockPos> failed;
+
+        public Result(int applied, List<BlockPos> failed)
+        {
+            this.applied = applied;
+            this.failed = Collections.unmodifiableList(failed);
+        }
+
+        /**
+         * @return The number of containers the changes were applied to
+         */
+        public int getApplied()
+        {
+            return applied;
+        }
+
+        /**
+         * @return All positions the changes could not be applied to
+         */
+        public List<BlockPos> getFailed()
+        {
+            return failed;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.ocelot.sonar.common.valuecontainer;
 
 import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.network.PacketBuffer;
 import net.minecraft.util.text.ITextComponent;
 
 import java.util.Optional;
@@ -45,6 +46,26 @@ public interface ValueContainerEntry<T>
      */
     boolean isDirty();
 
+    /**
+     * Sets the previous value of this entry to the current value, so it is no longer dirty. Used when the value is changed to match the server rather than by the player. Entries that do not implement this will stay dirty.
+     *
+     * @since 5.1.0
+     */
+    default void markClean()
+    {
+    }
+
+    /**
+     * Checks to see if the current value is within the limits of this entry. Used to validate values received from clients before they are applied.
+     *
+     * @return Whether or not the current value is allowed
+     * @since 5.1.0
+     */
+    default boolean isInBounds()
+    {
+        return true;
+    }
+
     /**
      * @return A string representation of this data
      */
@@ -69,6 +90,31 @@ public interface ValueContainerEntry<T>
      */
     void read(CompoundNBT nbt);
 
+    /**
+     * Writes this entry value to the specified buffer. Entries that do not override this will write an NBT tag using {@link #write(CompoundNBT)}.
+     *
+     * @param buf The buffer to write into
+     * @since 5.1.0
+     */
+    default void writeValue(PacketBuffer buf)
+    {
+        CompoundNBT nbt = new CompoundNBT();
+        this.write(nbt);
+        buf.writeCompoundTag(nbt);
+    }
+
+    /**
+     * Reads this entry value from the specified buffer. Must read exactly what was written by {@link #writeValue(PacketBuffer)}.
+     *
+     * @param buf The buffer to read from
+     * @since 5.1.0
+     */
+    default void readValue(PacketBuffer buf)
+    {
+        CompoundNBT nbt = buf.readCompoundTag();
+        this.read(nbt != null ? nbt : new CompoundNBT());
+    }
+
     /**
      * Parses this type of data from the provided data.
      *
@@ -0,0 +1,71 @@
+package io.github.ocelot.sonar.common.valuecontainer;
+
+import net.minecraft.network.PacketBuffer;
+
+import javax.annotation.Nullable;
+
+/**
+ * <p>Describes why changes to a {@link ValueContainer} were rejected.</p>
+ *
+ * @author Ocelot
+ * @see ValueContainerTransaction
+ * @since 5.1.0
+ */
+public class ValueContainerError
+{
+    private final String entry;
+    private final String message;
+
+    public ValueContainerError(@Nullable String entry, String message)
+    {
+        this.entry = entry;
+        this.message = message;
+    }
+
+    /**
+     * Reads an error from the specified buffer.
+     *
+     * @param buf The buffer to read from
+     * @return The error read
+     */
+    public static ValueContainerError read(PacketBuffer buf)
+    {
+        return new ValueContainerError(buf.readBoolean() ? buf.readString(32767) : null, buf.readString(32767));
+    }
+
+    /**
+     * Writes this error into the specified buffer.
+     *
+     * @param buf The buffer to write into
+     */
+    public void write(PacketBuffer buf)
+    {
+        buf.writeBoolean(this.entry != null);
+        if (this.entry != null)
+            buf.writeString(this.entry);
+        buf.writeString(this.message);
+    }
+
+    /**
+     * @return The name of the entry that caused the error or null if the error is not caused by a single entry
+     */
+    @Nullable
+    public String getEntry()
+    {
+        return entry;
+    }
+
+    /**
+     * @return A description of the problem
+     */
+    public String getMessage()
+    {
+        return message;
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.entry != null ? this.entry + ": " + this.message : this.message;
+    }
+}
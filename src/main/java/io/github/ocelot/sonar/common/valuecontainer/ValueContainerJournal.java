@@ -0,0 +1,366 @@
+package io.github.ocelot.sonar.common.valuecontainer;
+
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IWorld;
+import net.minecraft.world.World;
+import net.minecraft.world.dimension.DimensionType;
+import net.minecraftforge.event.world.BlockEvent;
+import net.minecraftforge.event.world.ExplosionEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.fml.event.server.FMLServerStoppedEvent;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * <p>Records changes made to {@link ValueContainer} so they can be undone and redone on the server.</p>
+ * <p>Each change only stores the entries that changed, as the values before and after the change in the binary format written by {@link ValueContainer#serialize(List, BitSet, PacketBuffer)}.
+ * Changes are kept in a fixed size ring buffer per position, which is only created once a container is first changed, so memory use depends on the number of edits instead of the number of containers.</p>
+ * <p>Undoing and redoing goes through {@link ValueContainer#apply(World, BlockPos, ValueContainer, PacketBuffer)}, so values are validated the same way as changes sent by clients. Operators can use {@link ValueContainerJournalCommand} to undo and redo changes.</p>
+ * <p>Changes are kept by position while the chunk or world containing them is unloaded, so they can still be undone once it is loaded again. They are forgotten when the block is broken or blown up and when the server stops.
+ * At most {@link #getCapacity()} changes are kept per position, so memory use stays bounded by the number of edited containers.</p>
+ *
+ * @author Ocelot
+ * @since 5.1.0
+ */
+public class ValueContainerJournal
+{
+    private static final InstanceEventListeners<ValueContainerJournal> LISTENERS = new InstanceEventListeners<>();
+
+    static
+    {
+        LISTENERS.addListener(EventPriority.LOWEST, BlockEvent.BreakEvent.class, ValueContainerJournal::onBlockBreak);
+        LISTENERS.addListener(EventPriority.LOWEST, ExplosionEvent.Detonate.class, ValueContainerJournal::onExplosion);
+        LISTENERS.addListener(FMLServerStoppedEvent.class, ValueContainerJournal::onServerStopped);
+    }
+
+    private final int capacity;
+    private final Map<DimensionType, Long2ObjectMap<History>> histories;
+
+    public ValueContainerJournal()
+    {
+        this(32);
+    }
+
+    public ValueContainerJournal(int capacity)
+    {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        this.capacity = capacity;
+        this.histories = new HashMap<>();
+        LISTENERS.add(this);
+    }
+
+    private void onBlockBreak(BlockEvent.BreakEvent event)
+    {
+        if (!event.getWorld().isRemote())
+            this.remove(event.getWorld(), event.getPos());
+    }
+
+    private void onExplosion(ExplosionEvent.Detonate event)
+    {
+        if (!event.getWorld().isRemote())
+            for (BlockPos pos : event.getAffectedBlocks())
+                this.remove(event.getWorld(), pos);
+    }
+
+    private void onServerStopped(FMLServerStoppedEvent event)
+    {
+        this.clear();
+    }
+
+    @Nullable
+    private History getHistory(World world, BlockPos pos, boolean create)
+    {
+        Long2ObjectMap<History> dimensionHistories = this.histories.get(world.getDimension().getType());
+        if (dimensionHistories == null)
+        {
+            if (!create)
+                return null;
+            dimensionHistories = new Long2ObjectOpenHashMap<>();
+            this.histories.put(world.getDimension().getType(), dimensionHistories);
+        }
+
+        History history = dimensionHistories.get(pos.toLong());
+        if (history == null && create)
+        {
+            history = new History(this.capacity);
+            dimensionHistories.put(pos.toLong(), history);
+        }
+        return history;
+    }
+
+    /**
+     * Runs the specified change and records any values it changed in the container.
+     *
+     * @param world     The world the container is in
+     * @param pos       The position of the container
+     * @param container The container being changed
+     * @param author    The id of the player making the change or null if not made by a player
+     * @param change    The change to make. Returns all problems found, in which case nothing is recorded
+     * @return The errors returned by the change
+     */
+    public List<ValueContainerError> record(World world, BlockPos pos, ValueContainer container, @Nullable UUID author, Supplier<List<ValueContainerError>> change)
+    {
+        List<ValueContainerEntry<?>> before = container.getEntries(world, pos);
+        Object[] values = new Object[before.size()];
+        for (int i = 0; i < before.size(); i++)
+            values[i] = before.get(i).getValue();
+
+        List<ValueContainerError> errors = change.get();
+        if (!errors.isEmpty())
+            return errors;
+
+        List<ValueContainerEntry<?>> after = container.getEntries(world, pos);
+        if (after.size() != before.size())
+            return errors;
+
+        BitSet changed = new BitSet(after.size());
+        for (int i = 0; i < after.size(); i++)
+            if (!Objects.equals(values[i], after.get(i).getValue()))
+                changed.set(i);
+        if (changed.isEmpty())
+            return errors;
+
+        Objects.requireNonNull(this.getHistory(world, pos, true)).push(new Change(author, world.getGameTime(), ValueContainer.serializeBytes(before, changed), ValueContainer.serializeBytes(after, changed)));
+        return errors;
+    }
+
+    /**
+     * Reverts the last change made to the container at the specified position.
+     *
+     * @param world     The world the container is in
+     * @param pos       The position of the container
+     * @param container The container to revert
+     * @return All problems found while reverting. If empty, the change was reverted
+     */
+    public List<ValueContainerError> undo(World world, BlockPos pos, ValueContainer container)
+    {
+        History history = this.getHistory(world, pos, false);
+        if (history == null || !history.canUndo())
+            return Collections.singletonList(new ValueContainerError(null, "Nothing to undo"));
+
+        List<ValueContainerError> errors = ValueContainer.apply(world, pos, container, new PacketBuffer(Unpooled.wrappedBuffer(history.peekUndo().before)));
+        if (errors.isEmpty())
+            history.undo();
+        return errors;
+    }
+
+    /**
+     * Applies the last change reverted by {@link #undo(World, BlockPos, ValueContainer)} again.
+     *
+     * @param world     The world the container is in
+     * @param pos       The position of the container
+     * @param container The container to change
+     * @return All problems found while applying. If empty, the change was applied
+     */
+    public List<ValueContainerError> redo(World world, BlockPos pos, ValueContainer container)
+    {
+        History history = this.getHistory(world, pos, false);
+        if (history == null || !history.canRedo())
+            return Collections.singletonList(new ValueContainerError(null, "Nothing to redo"));
+
+        List<ValueContainerError> errors = ValueContainer.apply(world, pos, container, new PacketBuffer(Unpooled.wrappedBuffer(history.peekRedo().after)));
+        if (errors.isEmpty())
+            history.redo();
+        return errors;
+    }
+
+    /**
+     * Checks whether or not there is a change that can be undone at the specified position.
+     *
+     * @param world The world the container is in
+     * @param pos   The position of the container
+     * @return Whether or not {@link #undo(World, BlockPos, ValueContainer)} has anything to revert
+     */
+    public boolean canUndo(World world, BlockPos pos)
+    {
+        History history = this.getHistory(world, pos, false);
+        return history != null && history.canUndo();
+    }
+
+    /**
+     * Checks whether or not there is a change that can be redone at the specified position.
+     *
+     * @param world The world the container is in
+     * @param pos   The position of the container
+     * @return Whether or not {@link #redo(World, BlockPos, ValueContainer)} has anything to apply
+     */
+    public boolean canRedo(World world, BlockPos pos)
+    {
+        History history = this.getHistory(world, pos, false);
+        return history != null && history.canRedo();
+    }
+
+    /**
+     * Fetches all changes recorded for the specified position that have not been undone, starting with the oldest.
+     *
+     * @param world The world the container is in
+     * @param pos   The position of the container
+     * @return The changes made to the container
+     */
+    public List<Change> getChanges(World world, BlockPos pos)
+    {
+        History history = this.getHistory(world, pos, false);
+        return history != null ? history.getChanges() : Collections.emptyList();
+    }
+
+    /**
+     * Forgets all changes made at the specified position. This is done automatically when the block is broken by a player or an explosion,
+     * but should also be called when a container is removed in any other way.
+     *
+     * @param world The world the container was in
+     * @param pos   The position of the container
+     */
+    public void remove(IWorld world, BlockPos pos)
+    {
+        Long2ObjectMap<History> dimensionHistories = this.histories.get(world.getDimension().getType());
+        if (dimensionHistories == null)
+            return;
+
+        dimensionHistories.remove(pos.toLong());
+        if (dimensionHistories.isEmpty())
+            this.histories.remove(world.getDimension().getType());
+    }
+
+    /**
+     * Forgets all changes made to all containers.
+     */
+    public void clear()
+    {
+        this.histories.clear();
+    }
+
+    /**
+     * @return The maximum number of changes kept per container
+     */
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    private static class History
+    {
+        private final Change[] changes;
+        private int start;
+        private int size;
+        private int position;
+
+        private History(int capacity)
+        {
+            this.changes = new Change[capacity];
+        }
+
+        private Change get(int index)
+        {
+            return this.changes[(this.start + index) % this.changes.length];
+        }
+
+        private void push(Change change)
+        {
+            for (int i = this.position; i < this.size; i++)
+                this.changes[(this.start + i) % this.changes.length] = null;
+            this.size = this.position;
+
+            if (this.size == this.changes.length)
+            {
+                this.start = (this.start + 1) % this.changes.length;
+                this.size--;
+            }
+
+            this.changes[(this.start + this.size) % this.changes.length] = change;
+            this.size++;
+            this.position = this.size;
+        }
+
+        private boolean canUndo()
+        {
+            return this.position > 0;
+        }
+
+        private boolean canRedo()
+        {
+            return this.position < this.size;
+        }
+
+        private Change peekUndo()
+        {
+            return this.get(this.position - 1);
+        }
+
+        private Change peekRedo()
+        {
+            return this.get(this.position);
+        }
+
+        private void undo()
+        {
+            this.position--;
+        }
+
+        private void redo()
+        {
+            this.position++;
+        }
+
+        private List<Change> getChanges()
+        {
+            List<Change> list = new ArrayList<>(this.position);
+            for (int i = 0; i < this.position; i++)
+                list.add(this.get(i));
+            return list;
+        }
+    }
+
+    /**
+     * <p>A single recorded change to a container.</p>
+     *
+     * @author Ocelot
+     * @since 5.1.0
+     */
+    public static class Change
+    {
+        private final UUID author;
+        private final long time;
+        private final byte[] before;
+        private final byte[] after;
+
+        private Change(@Nullable UUID author, long time, byte[] before, byte[] after)
+        {
+            this.author = author;
+            this.time = time;
+            this.before = before;
+            this.after = after;
+        }
+
+        /**
+         * @return The id of the player that made the change or null if not made by a player
+         */
+        @Nullable
+        public UUID getAuthor()
+        {
+            return author;
+        }
+
+        /**
+         * @return The game time the change was made at
+         */
+        public long getTime()
+        {
+            return time;
+        }
+
+        /**
+         * @return The number of bytes used to store this change
+         */
+        public int getSize()
+        {
+            return this.before.length + this.after.length;
+        }
+    }
+}
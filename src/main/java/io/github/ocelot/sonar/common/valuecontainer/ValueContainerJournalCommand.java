@@ -0,0 +1,87 @@
+package io.github.ocelot.sonar.common.valuecontainer;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.exceptions.SimpleCommandExceptionType;
+import net.minecraft.command.CommandSource;
+import net.minecraft.command.Commands;
+import net.minecraft.command.arguments.BlockPosArgument;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.text.StringTextComponent;
+import net.minecraft.util.text.TextFormatting;
+import net.minecraft.world.World;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * <p>Registers the <code>/sonar valuecontainer</code> command which lets operators use a {@link ValueContainerJournal}.</p>
+ * <p><code>/sonar valuecontainer undo &lt;pos&gt;</code> and <code>/sonar valuecontainer redo &lt;pos&gt;</code> revert and reapply the last change made to a container,
+ * and <code>/sonar valuecontainer history &lt;pos&gt;</code> lists the changes that can be undone.</p>
+ *
+ * @author Ocelot
+ * @since 5.1.0
+ */
+public final class ValueContainerJournalCommand
+{
+    private static final SimpleCommandExceptionType NOT_A_CONTAINER = new SimpleCommandExceptionType(new StringTextComponent("That position is not a value container"));
+
+    private ValueContainerJournalCommand()
+    {
+    }
+
+    /**
+     * Registers the value container journal command. Should be called from {@link net.minecraftforge.fml.event.server.FMLServerStartingEvent}.
+     *
+     * @param dispatcher The dispatcher to register the command to
+     * @param journal    The journal changes are recorded in
+     */
+    public static void register(CommandDispatcher<CommandSource> dispatcher, ValueContainerJournal journal)
+    {
+        dispatcher.register(Commands.literal("sonar").requires(source -> source.hasPermissionLevel(2))
+                .then(Commands.literal("valuecontainer")
+                        .then(Commands.literal("undo").then(Commands.argument("pos", BlockPosArgument.blockPos()).executes(ctx -> undo(ctx.getSource(), BlockPosArgument.getLoadedBlockPos(ctx, "pos"), journal, false))))
+                        .then(Commands.literal("redo").then(Commands.argument("pos", BlockPosArgument.blockPos()).executes(ctx -> undo(ctx.getSource(), BlockPosArgument.getLoadedBlockPos(ctx, "pos"), journal, true))))
+                        .then(Commands.literal("history").then(Commands.argument("pos", BlockPosArgument.blockPos()).executes(ctx -> printHistory(ctx.getSource(), BlockPosArgument.getLoadedBlockPos(ctx, "pos"), journal))))));
+    }
+
+    private static int undo(CommandSource source, BlockPos pos, ValueContainerJournal journal, boolean redo) throws CommandSyntaxException
+    {
+        World world = source.getWorld();
+        ValueContainer container = ValueContainer.get(world, pos);
+        if (container == null)
+            throw NOT_A_CONTAINER.create();
+
+        List<ValueContainerError> errors = redo ? journal.redo(world, pos, container) : journal.undo(world, pos, container);
+        if (!errors.isEmpty())
+        {
+            for (ValueContainerError error : errors)
+                source.sendErrorMessage(new StringTextComponent(error.toString()));
+            return 0;
+        }
+
+        source.sendFeedback(new StringTextComponent(String.format(Locale.ROOT, "%s change to value container at %d, %d, %d", redo ? "Redid" : "Undid", pos.getX(), pos.getY(), pos.getZ())), true);
+        return 1;
+    }
+
+    private static int printHistory(CommandSource source, BlockPos pos, ValueContainerJournal journal) throws CommandSyntaxException
+    {
+        World world = source.getWorld();
+        if (ValueContainer.get(world, pos) == null)
+            throw NOT_A_CONTAINER.create();
+
+        List<ValueContainerJournal.Change> changes = journal.getChanges(world, pos);
+        if (changes.isEmpty())
+        {
+            source.sendFeedback(new StringTextComponent("No changes have been recorded"), false);
+            return 0;
+        }
+
+        for (int i = changes.size() - 1; i >= 0; i--)
+        {
+            ValueContainerJournal.Change change = changes.get(i);
+            source.sendFeedback(new StringTextComponent(String.format(Locale.ROOT, "%d ticks ago by %s (%d bytes)", world.getGameTime() - change.getTime(), change.getAuthor() != null ? change.getAuthor() : "unknown", change.getSize())).applyTextStyle(TextFormatting.GRAY), false);
+        }
+        return changes.size();
+    }
+}
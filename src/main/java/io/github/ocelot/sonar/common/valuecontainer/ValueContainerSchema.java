@@ -0,0 +1,160 @@
+package io.github.ocelot.sonar.common.valuecontainer;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>Describes the entries of a type of {@link ValueContainer}. Schemas are reused for every sync, only being rebuilt if a container produces different entries than before.
+ * Containers that {@link ValueContainer#hasFixedEntries() have fixed entries} share one schema per class. All other containers get their own schema, so instances with different entries do not keep replacing each other's schema.</p>
+ * <p>Only the names and types of entries are part of a schema. Anything that can be different between instances of the same container, such as slider bounds, must be read from the entries themselves.</p>
+ *
+ * @author Ocelot
+ * @since 5.1.0
+ */
+public final class ValueContainerSchema
+{
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final Map<Class<?>, ValueContainerSchema> SCHEMAS = new ConcurrentHashMap<>();
+    private static final Map<ValueContainer, ValueContainerSchema> INSTANCE_SCHEMAS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final String[] names;
+    private final Class<?>[] types;
+    private final Object2IntMap<String> indices;
+    private final int hash;
+
+    private ValueContainerSchema(List<ValueContainerEntry<?>> entries)
+    {
+        int size = entries.size();
+        this.names = new String[size];
+        this.types = new Class<?>[size];
+        this.indices = new Object2IntOpenHashMap<>(size);
+        this.indices.defaultReturnValue(-1);
+
+        for (int i = 0; i < size; i++)
+        {
+            ValueContainerEntry<?> entry = entries.get(i);
+            if (this.indices.containsKey(entry.getName()))
+                LOGGER.warn("Duplicate value container entry '" + entry.getName() + "' at index " + i + ". Only the first entry can be looked up by name.");
+            else
+                this.indices.put(entry.getName(), i);
+
+            this.names[i] = entry.getName();
+            this.types[i] = entry.getClass();
+        }
+        this.hash = ValueContainer.getSchemaHash(entries);
+    }
+
+    /**
+     * Checks to see if the specified entries were created from the same definition as this schema.
+     *
+     * @param entries The entries to check
+     * @return Whether or not the entries have the same names and types in the same order as this schema
+     */
+    public boolean matches(List<ValueContainerEntry<?>> entries)
+    {
+        if (entries.size() != this.names.length)
+            return false;
+        for (int i = 0; i < this.names.length; i++)
+        {
+            ValueContainerEntry<?> entry = entries.get(i);
+            String name = entry.getName();
+            if (entry.getClass() != this.types[i] || (name != this.names[i] && !this.names[i].equals(name)))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return The number of entries in this schema
+     */
+    public int size()
+    {
+        return this.names.length;
+    }
+
+    /**
+     * Fetches the index of the entry with the specified name.
+     *
+     * @param name The name of the entry
+     * @return The index of the first entry with that name or <code>-1</code> if there is no entry with that name
+     */
+    public int getIndex(String name)
+    {
+        return this.indices.getInt(name);
+    }
+
+    /**
+     * @param index The index of the entry
+     * @return The name of the entry at the specified index
+     */
+    public String getName(int index)
+    {
+        return this.names[index];
+    }
+
+    /**
+     * @param index The index of the entry
+     * @return The class of the entry at the specified index
+     */
+    public Class<?> getType(int index)
+    {
+        return this.types[index];
+    }
+
+    /**
+     * @return The hash of entry names used to make sure binary data is read with the same entries it was written with
+     * @see ValueContainer#getSchemaHash(List)
+     */
+    public int getHash()
+    {
+        return hash;
+    }
+
+    /**
+     * Fetches the schema for the specified container, creating a new one if the entries do not match the cached schema.
+     * If the container {@link ValueContainer#hasFixedEntries() has fixed entries}, the schema cached for its class is reused as long as the number of entries is the same, without comparing every entry.
+     * Otherwise the schema cached for that container instance is reused if it matches the entries.
+     *
+     * @param container The container to get the schema for
+     * @param entries   The entries that container currently has
+     * @return The schema describing the entries
+     */
+    public static ValueContainerSchema get(ValueContainer container, List<ValueContainerEntry<?>> entries)
+    {
+        if (container.hasFixedEntries())
+        {
+            ValueContainerSchema schema = SCHEMAS.get(container.getClass());
+            if (schema != null && schema.size() == entries.size())
+                return schema;
+
+            schema = new ValueContainerSchema(entries);
+            SCHEMAS.put(container.getClass(), schema);
+            return schema;
+        }
+
+        ValueContainerSchema schema = INSTANCE_SCHEMAS.get(container);
+        if (schema != null && schema.matches(entries))
+            return schema;
+
+        schema = new ValueContainerSchema(entries);
+        INSTANCE_SCHEMAS.put(container, schema);
+        return schema;
+    }
+
+    /**
+     * Removes all cached schemas.
+     */
+    public static void clearCache()
+    {
+        SCHEMAS.clear();
+        INSTANCE_SCHEMAS.clear();
+    }
+}
@@ -0,0 +1,206 @@
+package io.github.ocelot.sonar.common.valuecontainer;
+
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.fml.event.server.FMLServerStoppedEvent;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * <p>Saves the entries of a {@link ValueContainer} tile entity to NBT, so tile entities do not need to write each value by hand.</p>
+ * <p>Only values that are different from the values of a newly created tile entity are written. The saved tag is cached along with the values it was created from,
+ * so saving an unchanged container only compares values instead of writing every entry again. Values changed in any way, such as by tick logic or commands, are noticed the next time the tile entity is saved.</p>
+ * <p>To use storage, call {@link #write(CompoundNBT)} and {@link #read(CompoundNBT)} from the tile entity methods of the same name and {@link #onLoad()} from {@link TileEntity#onLoad()}.</p>
+ *
+ * @param <T> The type of tile entity to store values for
+ * @author Ocelot
+ * @since 5.1.0
+ */
+public class ValueContainerStorage<T extends TileEntity & ValueContainer>
+{
+    private static final Map<Class<?>, Defaults> DEFAULTS = new ConcurrentHashMap<>();
+
+    static
+    {
+        MinecraftForge.EVENT_BUS.addListener(ValueContainerStorage::onServerStopped);
+    }
+
+    private final T tileEntity;
+    private final Supplier<T> defaultFactory;
+    private final String key;
+    private CompoundNBT cached;
+    private Object[] cachedValues;
+    private CompoundNBT pending;
+
+    public ValueContainerStorage(T tileEntity, Supplier<T> defaultFactory)
+    {
+        this(tileEntity, defaultFactory, "ValueContainer");
+    }
+
+    public ValueContainerStorage(T tileEntity, Supplier<T> defaultFactory, String key)
+    {
+        this.tileEntity = tileEntity;
+        this.defaultFactory = defaultFactory;
+        this.key = key;
+    }
+
+    private static void onServerStopped(FMLServerStoppedEvent event)
+    {
+        clearCache();
+    }
+
+    private Defaults getDefaults(World world, BlockPos pos, List<ValueContainerEntry<?>> entries)
+    {
+        ValueContainerSchema schema = ValueContainerSchema.get(this.tileEntity, entries);
+        Defaults defaults = DEFAULTS.get(this.tileEntity.getClass());
+        if (defaults != null && defaults.schema == schema)
+            return defaults;
+
+        List<ValueContainerEntry<?>> defaultEntries = this.defaultFactory.get().getEntries(world, pos);
+        if (!schema.matches(defaultEntries))
+            throw new IllegalStateException("Default " + this.tileEntity.getClass().getName() + " has different entries than the tile entity at '" + pos + "'");
+
+        defaults = new Defaults(schema, defaultEntries);
+        DEFAULTS.put(this.tileEntity.getClass(), defaults);
+        return defaults;
+    }
+
+    /**
+     * Marks the values as changed, so they will be written again the next time the tile entity is saved without being compared to the cached values first.
+     */
+    public void markDirty()
+    {
+        this.cached = null;
+        this.cachedValues = null;
+    }
+
+    /**
+     * Writes all values that are different from the defaults into the specified tag.
+     *
+     * @param nbt The tag to write into
+     * @return The same tag
+     */
+    public CompoundNBT write(CompoundNBT nbt)
+    {
+        CompoundNBT valuesNbt = this.pending != null ? this.pending : this.getValues();
+        if (valuesNbt != null && !valuesNbt.isEmpty())
+            nbt.put(this.key, valuesNbt.copy());
+        return nbt;
+    }
+
+    /**
+     * Reads values from the specified tag. If the tile entity is not in a world yet, values are applied in {@link #onLoad()}.
+     *
+     * @param nbt The tag to read from
+     */
+    public void read(CompoundNBT nbt)
+    {
+        this.pending = nbt.getCompound(this.key);
+        this.markDirty();
+        if (this.tileEntity.hasWorld())
+            this.onLoad();
+    }
+
+    /**
+     * Applies any values read before the tile entity was added to a world.
+     */
+    public void onLoad()
+    {
+        World world = this.tileEntity.getWorld();
+        if (this.pending == null || world == null)
+            return;
+
+        CompoundNBT valuesNbt = this.pending;
+        this.pending = null;
+
+        BlockPos pos = this.tileEntity.getPos();
+        List<ValueContainerEntry<?>> entries = this.tileEntity.getEntries(world, pos);
+        Defaults defaults = this.getDefaults(world, pos, entries);
+        Map<String, ValueContainerEntry<?>> readEntries = new HashMap<>();
+        Object[] values = new Object[entries.size()];
+        for (int i = 0; i < entries.size(); i++)
+        {
+            ValueContainerEntry<?> entry = entries.get(i);
+            entry.read(valuesNbt.contains(entry.getName()) ? valuesNbt : defaults.nbt);
+            if (!Objects.equals(entry.getValue(), entry.getPreviousValue()))
+                readEntries.put(entry.getName(), entry);
+            values[i] = entry.getValue();
+        }
+        if (!readEntries.isEmpty())
+            this.tileEntity.readEntries(world, pos, readEntries);
+        this.cached = valuesNbt;
+        this.cachedValues = values;
+    }
+
+    private boolean isCacheValid(List<ValueContainerEntry<?>> entries)
+    {
+        if (this.cached == null || this.cachedValues == null || this.cachedValues.length != entries.size())
+            return false;
+        for (int i = 0; i < entries.size(); i++)
+            if (!Objects.equals(entries.get(i).getValue(), this.cachedValues[i]))
+                return false;
+        return true;
+    }
+
+    @Nullable
+    private CompoundNBT getValues()
+    {
+        World world = this.tileEntity.getWorld();
+        if (world == null)
+            return this.cached;
+
+        BlockPos pos = this.tileEntity.getPos();
+        List<ValueContainerEntry<?>> entries = this.tileEntity.getEntries(world, pos);
+        if (this.isCacheValid(entries))
+            return this.cached;
+
+        Defaults defaults = this.getDefaults(world, pos, entries);
+        CompoundNBT valuesNbt = new CompoundNBT();
+        Object[] values = new Object[entries.size()];
+        for (int i = 0; i < entries.size(); i++)
+        {
+            ValueContainerEntry<?> entry = entries.get(i);
+            Object value = entry.getValue();
+            if (!Objects.equals(value, defaults.values[i]))
+                entry.write(valuesNbt);
+            values[i] = value;
+        }
+        this.cached = valuesNbt;
+        this.cachedValues = values;
+        return valuesNbt;
+    }
+
+    /**
+     * Removes the cached default values of every type of tile entity. This is done automatically when the server stops.
+     */
+    public static void clearCache()
+    {
+        DEFAULTS.clear();
+    }
+
+    private static class Defaults
+    {
+        private final ValueContainerSchema schema;
+        private final Object[] values;
+        private final CompoundNBT nbt;
+
+        private Defaults(ValueContainerSchema schema, List<ValueContainerEntry<?>> entries)
+        {
+            this.schema = schema;
+            this.values = new Object[entries.size()];
+            this.nbt = new CompoundNBT();
+            for (int i = 0; i < entries.size(); i++)
+            {
+                ValueContainerEntry<?> entry = entries.get(i);
+                this.values[i] = entry.getValue();
+                entry.write(this.nbt);
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package io.github.ocelot.sonar.common.valuecontainer;
+
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.fml.event.server.FMLServerStoppedEvent;
+import net.minecraftforge.fml.network.PacketDistributor;
+import net.minecraftforge.fml.network.simple.SimpleChannel;
+
+import java.util.*;
+
+/**
+ * <p>Pushes the values of {@link ValueContainer} to players that have the editor screen open, so screens do not show stale values when the server changes them.</p>
+ * <p>Subscribed containers are checked every few ticks and only entries with values that changed since the last check are sent. This means any number of changes between checks are merged into a single {@link UpdateValueContainerMessage}.</p>
+ * <p>To use streaming, register {@link SubscribeValueContainerMessage} and {@link UpdateValueContainerMessage}, return the streamer from {@link IValueContainerServerHandler#getValueContainerStreamer()}
+ * and send subscriptions from {@link io.github.ocelot.sonar.client.screen.ValueContainerEditorScreen#sendSubscriptionToServer(boolean)}.</p>
+ *
+ * @author Ocelot
+ * @since 5.1.0
+ */
+public class ValueContainerStreamer
+{
+    private static final double MAX_DISTANCE_SQ = 64 * 64;
+    private static final InstanceEventListeners<ValueContainerStreamer> LISTENERS = new InstanceEventListeners<>();
+
+    static
+    {
+        LISTENERS.addListener(TickEvent.ServerTickEvent.class, ValueContainerStreamer::onServerTick);
+        LISTENERS.addListener(PlayerEvent.PlayerLoggedOutEvent.class, ValueContainerStreamer::onPlayerLoggedOut);
+        LISTENERS.addListener(FMLServerStoppedEvent.class, ValueContainerStreamer::onServerStopped);
+    }
+
+    private final SimpleChannel channel;
+    private final int interval;
+    private final Map<UUID, Subscription> subscriptions;
+    private int ticks;
+
+    public ValueContainerStreamer(SimpleChannel channel)
+    {
+        this(channel, 4);
+    }
+
+    public ValueContainerStreamer(SimpleChannel channel, int interval)
+    {
+        if (interval < 1)
+            throw new IllegalArgumentException("Interval must be at least 1 tick");
+        this.channel = channel;
+        this.interval = interval;
+        this.subscriptions = new HashMap<>();
+        LISTENERS.add(this);
+    }
+
+    private void onServerTick(TickEvent.ServerTickEvent event)
+    {
+        if (event.phase != TickEvent.Phase.END || this.subscriptions.isEmpty())
+            return;
+        if (++this.ticks < this.interval)
+            return;
+        this.ticks = 0;
+
+        this.subscriptions.values().removeIf(subscription -> !subscription.update());
+    }
+
+    private void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event)
+    {
+        this.subscriptions.remove(event.getPlayer().getUniqueID());
+    }
+
+    private void onServerStopped(FMLServerStoppedEvent event)
+    {
+        this.subscriptions.clear();
+        this.ticks = 0;
+    }
+
+    /**
+     * Starts sending the values of the container at the specified position to the player. Only one container can be subscribed to per player.
+     *
+     * @param player The player to send updates to
+     * @param pos    The position of the container
+     */
+    public void subscribe(ServerPlayerEntity player, BlockPos pos)
+    {
+        this.subscriptions.put(player.getUniqueID(), new Subscription(player, pos.toImmutable()));
+    }
+
+    /**
+     * Stops sending updates to the specified player.
+     *
+     * @param player The player to stop sending updates to
+     */
+    public void unsubscribe(ServerPlayerEntity player)
+    {
+        this.subscriptions.remove(player.getUniqueID());
+    }
+
+    /**
+     * @return The number of ticks between each check for changes
+     */
+    public int getInterval()
+    {
+        return interval;
+    }
+
+    private class Subscription
+    {
+        private final ServerPlayerEntity player;
+        private final World world;
+        private final BlockPos pos;
+        private ValueContainerSchema schema;
+        private Object[] values;
+
+        private Subscription(ServerPlayerEntity player, BlockPos pos)
+        {
+            this.player = player;
+            this.world = player.world;
+            this.pos = pos;
+        }
+
+        private boolean update()
+        {
+            if (this.player.removed || this.player.world != this.world || !this.world.isBlockLoaded(this.pos) || this.player.getDistanceSq(this.pos.getX() + 0.5, this.pos.getY() + 0.5, this.pos.getZ() + 0.5) > MAX_DISTANCE_SQ)
+                return false;
+
+            ValueContainer container = ValueContainer.get(this.world, this.pos);
+            if (container == null)
+                return false;
+
+            List<ValueContainerEntry<?>> entries = container.getEntries(this.world, this.pos);
+            ValueContainerSchema schema = ValueContainerSchema.get(container, entries);
+            boolean resend = false;
+            if (this.schema != schema)
+            {
+                this.schema = schema;
+                this.values = new Object[entries.size()];
+                resend = true;
+            }
+
+            BitSet changed = null;
+            for (int i = 0; i < entries.size(); i++)
+            {
+                Object value = entries.get(i).getValue();
+                if (resend || !Objects.equals(value, this.values[i]))
+                {
+                    if (changed == null)
+                        changed = new BitSet(entries.size());
+                    changed.set(i);
+                    this.values[i] = value;
+                }
+            }
+
+            if (changed != null)
+            {
+                channel.send(PacketDistributor.PLAYER.with(() -> this.player), new UpdateValueContainerMessage(this.pos, entries, changed));
+            }
+            return true;
+        }
+    }
+}
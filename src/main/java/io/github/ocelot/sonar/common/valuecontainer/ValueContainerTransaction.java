@@ -0,0 +1,194 @@
+package io.github.ocelot.sonar.common.valuecontainer;
+
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.ListNBT;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.common.util.Constants;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * <p>Applies changes to a {@link ValueContainer} all at once or not at all.</p>
+ * <p>Changes are first read into entries fetched from the container, which act as a staged copy. Once all changes have been read, every changed entry is checked using {@link ValueContainerEntry#isInBounds()}
+ * and text field validators. Only if there are no errors are the entries passed to {@link ValueContainer#readEntries(World, BlockPos, Map)}.</p>
+ *
+ * @author Ocelot
+ * @since 5.1.0
+ */
+public class ValueContainerTransaction
+{
+    private final World world;
+    private final BlockPos pos;
+    private final ValueContainer container;
+    private final List<ValueContainerEntry<?>> entries;
+    private final ValueContainerSchema schema;
+    private final Map<String, ValueContainerEntry<?>> staged;
+    private final List<ValueContainerError> errors;
+    private boolean committed;
+
+    public ValueContainerTransaction(World world, BlockPos pos, ValueContainer container)
+    {
+        this.world = world;
+        this.pos = pos;
+        this.container = container;
+        this.entries = container.getEntries(world, pos);
+        this.schema = ValueContainerSchema.get(container, this.entries);
+        this.staged = new HashMap<>();
+        this.errors = new ArrayList<>();
+        this.committed = false;
+    }
+
+    /**
+     * Stages changes written by {@link ValueContainer#serialize(List, PacketBuffer)}. Reading stops at the first error since the rest of the data cannot be trusted.
+     *
+     * @param buf The buffer full of data
+     * @return This transaction
+     */
+    public ValueContainerTransaction read(PacketBuffer buf)
+    {
+        this.checkNotCommitted();
+        try
+        {
+            if (buf.readInt() != this.schema.getHash())
+            {
+                this.errors.add(new ValueContainerError(null, "Container has different entries than the data was written for"));
+                return this;
+            }
+
+            int index;
+            while ((index = buf.readVarInt()) != 0)
+            {
+                if (index < 0 || index > this.schema.size())
+                {
+                    this.errors.add(new ValueContainerError(null, "Expected to read entry " + (index - 1) + ", but there are only " + this.schema.size() + " entries"));
+                    return this;
+                }
+
+                ValueContainerEntry<?> entry = this.entries.get(index - 1);
+                entry.readValue(buf);
+                this.staged.put(entry.getName(), entry);
+            }
+        }
+        catch (Exception e)
+        {
+            this.errors.add(new ValueContainerError(null, "Malformed data: " + e.getMessage()));
+        }
+        return this;
+    }
+
+    /**
+     * Stages changes written by {@link ValueContainer#serialize(List)}.
+     *
+     * @param nbt The tag full of data
+     * @return This transaction
+     */
+    public ValueContainerTransaction read(CompoundNBT nbt)
+    {
+        this.checkNotCommitted();
+        ListNBT entriesNbt = nbt.getList("entries", Constants.NBT.TAG_COMPOUND);
+        for (int i = 0; i < entriesNbt.size(); i++)
+        {
+            CompoundNBT valueContainerEntryNbt = entriesNbt.getCompound(i);
+            String name = valueContainerEntryNbt.getString("name");
+            int index = this.schema.getIndex(name);
+            if (index == -1)
+            {
+                this.errors.add(new ValueContainerError(name, "Not a valid property"));
+                continue;
+            }
+
+            ValueContainerEntry<?> entry = this.entries.get(index);
+            try
+            {
+                entry.read(valueContainerEntryNbt.getCompound("data"));
+                this.staged.put(entry.getName(), entry);
+            }
+            catch (Exception e)
+            {
+                this.errors.add(new ValueContainerError(name, "Malformed data: " + e.getMessage()));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Checks all staged entries for values that are out of bounds or fail validation.
+     *
+     * @return Whether or not there are no errors
+     */
+    public boolean validate()
+    {
+        for (ValueContainerEntry<?> entry : this.staged.values())
+        {
+            try
+            {
+                if (!entry.isInBounds())
+                {
+                    this.errors.add(new ValueContainerError(entry.getName(), "Value '" + entry.getDisplay() + "' is out of bounds"));
+                    continue;
+                }
+
+                Optional<Predicate<String>> validator = entry.getValidator();
+                if (entry.getInputType() == ValueContainerEntry.InputType.TEXT_FIELD && validator.isPresent() && !validator.get().test(entry.getDisplay()))
+                    this.errors.add(new ValueContainerError(entry.getName(), "Value '" + entry.getDisplay() + "' is not valid"));
+            }
+            catch (Exception e)
+            {
+                this.errors.add(new ValueContainerError(entry.getName(), "Failed to validate value: " + e.getMessage()));
+            }
+        }
+        return this.errors.isEmpty();
+    }
+
+    /**
+     * Validates and applies all staged entries to the container. If there are any errors, the container is not modified.
+     *
+     * @return Whether or not the changes were applied
+     * @throws IllegalStateException If this transaction has already been committed
+     */
+    public boolean commit()
+    {
+        this.checkNotCommitted();
+        this.committed = true;
+        if (!this.errors.isEmpty() || !this.validate())
+            return false;
+        if (this.staged.isEmpty())
+            return true;
+
+        try
+        {
+            this.container.readEntries(this.world, this.pos, this.staged);
+            return true;
+        }
+        catch (Exception e)
+        {
+            this.errors.add(new ValueContainerError(null, "Container failed to read entries: " + e.getMessage()));
+            return false;
+        }
+    }
+
+    private void checkNotCommitted()
+    {
+        if (this.committed)
+            throw new IllegalStateException("Transaction has already been committed");
+    }
+
+    /**
+     * @return All errors found so far
+     */
+    public List<ValueContainerError> getErrors()
+    {
+        return Collections.unmodifiableList(this.errors);
+    }
+
+    /**
+     * @return The entries that have been read and will be applied
+     */
+    public Map<String, ValueContainerEntry<?>> getStaged()
+    {
+        return Collections.unmodifiableMap(this.staged);
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.ocelot.sonar.common.valuecontainer;
 
 import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.network.PacketBuffer;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraftforge.common.util.Constants;
@@ -74,6 +75,20 @@ public class Vector3dValueContainerEntry extends AbstractVectorValueContainerEnt
         }
     }
 
+    @Override
+    public void writeValue(PacketBuffer buf)
+    {
+        buf.writeDouble(this.value.getX());
+        buf.writeDouble(this.value.getY());
+        buf.writeDouble(this.value.getZ());
+    }
+
+    @Override
+    public void readValue(PacketBuffer buf)
+    {
+        this.value = new Vec3d(buf.readDouble(), buf.readDouble(), buf.readDouble());
+    }
+
     @Override
     public void parse(String data)
     {
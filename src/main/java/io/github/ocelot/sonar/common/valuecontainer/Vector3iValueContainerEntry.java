@@ -1,6 +1,7 @@
 package io.github.ocelot.sonar.common.valuecontainer;
 
 import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.network.PacketBuffer;
 import net.minecraft.util.math.Vec3i;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraftforge.common.util.Constants;
@@ -72,6 +73,20 @@ public class Vector3iValueContainerEntry extends AbstractVectorValueContainerEnt
         }
     }
 
+    @Override
+    public void writeValue(PacketBuffer buf)
+    {
+        buf.writeVarInt(this.value.getX());
+        buf.writeVarInt(this.value.getY());
+        buf.writeVarInt(this.value.getZ());
+    }
+
+    @Override
+    public void readValue(PacketBuffer buf)
+    {
+        this.value = new Vec3i(buf.readVarInt(), buf.readVarInt(), buf.readVarInt());
+    }
+
     @Override
     public void parse(String data)
     {
@@ -21,11 +21,13 @@ import net.minecraft.item.BlockItem;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.tileentity.TileEntityType;
+import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.eventbus.api.IEventBus;
 import net.minecraftforge.fml.RegistryObject;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.event.lifecycle.FMLClientSetupEvent;
 import net.minecraftforge.fml.event.lifecycle.FMLCommonSetupEvent;
+import net.minecraftforge.fml.event.server.FMLServerStartingEvent;
 import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
 import net.minecraftforge.fml.network.PacketDistributor;
 import net.minecraftforge.registries.DeferredRegister;
@@ -75,6 +77,7 @@ public class TestMod
         ENTITIES.register(modBus);
         modBus.addListener(this::init);
         modBus.addListener(this::initClient);
+        MinecraftForge.EVENT_BUS.addListener(this::serverStarting);
     }
 
     private void init(FMLCommonSetupEvent event)
@@ -86,4 +89,9 @@ public class TestMod
     {
         TestClientInit.init();
     }
+
+    private void serverStarting(FMLServerStartingEvent event)
+    {
+        TestMessageHandler.registerCommands(event.getCommandDispatcher());
+    }
 }
@@ -36,6 +36,12 @@ public class TestStateBlock extends BaseBlock implements ValueContainer
     {
     }
 
+    @Override
+    public boolean hasFixedEntries()
+    {
+        return true;
+    }
+
     @OnlyIn(Dist.CLIENT)
     @Override
     public Optional<ITextComponent> getTitle(World world, BlockPos pos)
@@ -0,0 +1,59 @@
+package io.github.ocelot.sonar.common.valuecontainer;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.text.StringTextComponent;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FloatValueContainerEntryTest
+{
+    private static FloatValueContainerEntry create(float value)
+    {
+        return new FloatValueContainerEntry(new StringTextComponent("Test"), "test", value);
+    }
+
+    private static void read(FloatValueContainerEntry entry, float value)
+    {
+        PacketBuffer buf = new PacketBuffer(Unpooled.buffer());
+        try
+        {
+            buf.writeFloat(value);
+            entry.readValue(buf);
+        }
+        finally
+        {
+            buf.release();
+        }
+    }
+
+    @Test
+    public void unboundedAcceptsZero()
+    {
+        FloatValueContainerEntry entry = create(1.0F);
+        read(entry, 0.0F);
+        assertTrue(entry.isInBounds());
+        assertEquals(0.0F, entry.getValue(), 0.0F);
+    }
+
+    @Test
+    public void unboundedAcceptsNegative()
+    {
+        FloatValueContainerEntry entry = create(1.0F);
+        read(entry, -42.5F);
+        assertTrue(entry.isInBounds());
+
+        entry.parse("-1000000");
+        assertEquals(-1000000.0F, entry.getValue(), 0.0F);
+        assertTrue(entry.isInBounds());
+    }
+
+    @Test
+    public void unboundedDefaultsAreInBounds()
+    {
+        assertTrue(create(0.0F).isInBounds());
+        assertTrue(create(-Float.MAX_VALUE).isInBounds());
+    }
+}
@@ -1,12 +1,15 @@
 package io.github.ocelot.sonar.network;
 
+import com.mojang.brigadier.CommandDispatcher;
 import io.github.ocelot.sonar.TestMod;
+import io.github.ocelot.sonar.common.network.NetworkStatsCommand;
 import io.github.ocelot.sonar.common.network.SonarNetworkManager;
-import io.github.ocelot.sonar.common.valuecontainer.SyncValueContainerMessage;
+import io.github.ocelot.sonar.common.valuecontainer.*;
 import io.github.ocelot.sonar.network.handler.TestClientLoginHandler;
 import io.github.ocelot.sonar.network.handler.TestClientPlayHandler;
 import io.github.ocelot.sonar.network.handler.TestServerLoginHandler;
 import io.github.ocelot.sonar.network.handler.TestServerPlayHandler;
+import net.minecraft.command.CommandSource;
 import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.fml.network.NetworkDirection;
 import net.minecraftforge.fml.network.NetworkRegistry;
@@ -21,11 +24,27 @@ public class TestMessageHandler
     private static final SonarNetworkManager LOGIN_NETWORK_MANAGER = new SonarNetworkManager(LOGIN, () -> TestClientLoginHandler::new, () -> TestServerLoginHandler::new);
     private static final SonarNetworkManager PLAY_NETWORK_MANAGER = new SonarNetworkManager(PLAY, () -> TestClientPlayHandler::new, () -> TestServerPlayHandler::new);
 
+    public static final ValueContainerStreamer VALUE_CONTAINER_STREAMER = new ValueContainerStreamer(PLAY);
+    public static final ValueContainerBulkEditor VALUE_CONTAINER_BULK_EDITOR = new ValueContainerBulkEditor(PLAY);
+    public static final ValueContainerJournal VALUE_CONTAINER_JOURNAL = new ValueContainerJournal();
+
     public static void init()
     {
         LOGIN_NETWORK_MANAGER.registerLoginReply(TestLoginReplyMessage.class, TestLoginReplyMessage::new, NetworkDirection.LOGIN_TO_SERVER);
         LOGIN_NETWORK_MANAGER.registerLogin(TestLoginMessage.class, TestLoginMessage::new, NetworkDirection.LOGIN_TO_CLIENT);
+        LOGIN_NETWORK_MANAGER.registerLoginAsync(TestAsyncLoginMessage.class, TestAsyncLoginMessage::new, NetworkDirection.LOGIN_TO_CLIENT);
         PLAY_NETWORK_MANAGER.register(SyncValueContainerMessage.class, SyncValueContainerMessage::new, NetworkDirection.PLAY_TO_SERVER);
         PLAY_NETWORK_MANAGER.register(SyncValueContainerMessage.class, SyncValueContainerMessage::new, NetworkDirection.PLAY_TO_SERVER);
+        PLAY_NETWORK_MANAGER.register(SubscribeValueContainerMessage.class, SubscribeValueContainerMessage::new, NetworkDirection.PLAY_TO_SERVER);
+        PLAY_NETWORK_MANAGER.register(UpdateValueContainerMessage.class, UpdateValueContainerMessage::new, NetworkDirection.PLAY_TO_CLIENT);
+        PLAY_NETWORK_MANAGER.register(BulkSyncValueContainerMessage.class, BulkSyncValueContainerMessage::new, NetworkDirection.PLAY_TO_SERVER);
+        PLAY_NETWORK_MANAGER.register(BulkValueContainerResultMessage.class, BulkValueContainerResultMessage::new, NetworkDirection.PLAY_TO_CLIENT);
+        PLAY_NETWORK_MANAGER.register(RejectValueContainerMessage.class, RejectValueContainerMessage::new, NetworkDirection.PLAY_TO_CLIENT);
+    }
+
+    public static void registerCommands(CommandDispatcher<CommandSource> dispatcher)
+    {
+        NetworkStatsCommand.register(dispatcher, LOGIN_NETWORK_MANAGER, PLAY_NETWORK_MANAGER);
+        ValueContainerJournalCommand.register(dispatcher, VALUE_CONTAINER_JOURNAL);
     }
 }
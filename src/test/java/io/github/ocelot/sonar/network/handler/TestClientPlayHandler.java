@@ -2,6 +2,7 @@ package io.github.ocelot.sonar.network.handler;
 
 import io.github.ocelot.sonar.TestMod;
 import io.github.ocelot.sonar.client.screen.ValueContainerEditorScreenImpl;
+import io.github.ocelot.sonar.common.valuecontainer.SubscribeValueContainerMessage;
 import io.github.ocelot.sonar.common.valuecontainer.SyncValueContainerMessage;
 import io.github.ocelot.sonar.common.valuecontainer.ValueContainer;
 import io.github.ocelot.sonar.network.TestMessageHandler;
@@ -32,6 +33,12 @@ public class TestClientPlayHandler implements ITestClientPlayHandler
                 System.out.println("Packet Sent!");
                 TestMessageHandler.PLAY.send(PacketDistributor.SERVER.noArg(), new SyncValueContainerMessage(this.getPos(), this.getEntries()));
             }
+
+            @Override
+            protected void sendSubscriptionToServer(boolean subscribe)
+            {
+                TestMessageHandler.PLAY.send(PacketDistributor.SERVER.noArg(), new SubscribeValueContainerMessage(this.getPos(), subscribe));
+            }
         };
     }
 }
@@ -1,5 +1,34 @@
 package io.github.ocelot.sonar.network.handler;
 
+import io.github.ocelot.sonar.common.valuecontainer.ValueContainerBulkEditor;
+import io.github.ocelot.sonar.common.valuecontainer.ValueContainerJournal;
+import io.github.ocelot.sonar.common.valuecontainer.ValueContainerStreamer;
+import io.github.ocelot.sonar.network.TestMessageHandler;
+import net.minecraftforge.fml.network.simple.SimpleChannel;
+
 public class TestServerPlayHandler implements ITestServerPlayHandler
 {
+    @Override
+    public ValueContainerStreamer getValueContainerStreamer()
+    {
+        return TestMessageHandler.VALUE_CONTAINER_STREAMER;
+    }
+
+    @Override
+    public ValueContainerBulkEditor getValueContainerBulkEditor()
+    {
+        return TestMessageHandler.VALUE_CONTAINER_BULK_EDITOR;
+    }
+
+    @Override
+    public ValueContainerJournal getValueContainerJournal()
+    {
+        return TestMessageHandler.VALUE_CONTAINER_JOURNAL;
+    }
+
+    @Override
+    public SimpleChannel getValueContainerChannel()
+    {
+        return TestMessageHandler.PLAY;
+    }
 }
@@ -79,6 +79,12 @@ public class TestTileEntity extends TileEntity implements ValueContainer
         System.out.println(entries);
     }
 
+    @Override
+    public boolean hasFixedEntries()
+    {
+        return true;
+    }
+
     @OnlyIn(Dist.CLIENT)
     @Override
     public Optional<ITextComponent> getTitle(World world, BlockPos pos)